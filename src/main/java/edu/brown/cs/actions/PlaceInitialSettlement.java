@@ -139,7 +139,7 @@ public class PlaceInitialSettlement implements FollowUpAction {
     if(playerID != _playerID){
       throw new IllegalArgumentException("Can only be setup with the correct player");
     }
-    _intersection = _ref.getBoard().getIntersections().get(toIntersectionCoordinate(params.get("coordinate")
+    _intersection = _ref.getBoard().getIntersections().get(IntersectionCoordinate.of(params.get("coordinate")
         .getAsJsonObject()));
     if(_intersection == null){
       throw new IllegalArgumentException("The intersection does not exist");
@@ -153,17 +153,4 @@ public class PlaceInitialSettlement implements FollowUpAction {
     return VERB;
   }
 
-  private IntersectionCoordinate toIntersectionCoordinate(JsonObject object) {
-    JsonObject coord1 = object.get("coord1").getAsJsonObject();
-    JsonObject coord2 = object.get("coord2").getAsJsonObject();
-    JsonObject coord3 = object.get("coord3").getAsJsonObject();
-    HexCoordinate h1 = new HexCoordinate(coord1.get("x").getAsInt(), coord1
-        .get("y").getAsInt(), coord1.get("z").getAsInt());
-    HexCoordinate h2 = new HexCoordinate(coord2.get("x").getAsInt(), coord2
-        .get("y").getAsInt(), coord2.get("z").getAsInt());
-    HexCoordinate h3 = new HexCoordinate(coord3.get("x").getAsInt(), coord3
-        .get("y").getAsInt(), coord3.get("z").getAsInt());
-    return new IntersectionCoordinate(h1, h2, h3);
-  }
-
 }
@@ -7,9 +7,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.gson.JsonObject;
 
-import edu.brown.cs.board.HexCoordinate;
 import edu.brown.cs.board.IntersectionCoordinate;
-import edu.brown.cs.board.Path;
 import edu.brown.cs.catan.Player;
 import edu.brown.cs.catan.Referee;
 import edu.brown.cs.catan.Referee.GameStatus;
@@ -50,14 +48,8 @@ public class PlaceRoad implements FollowUpAction {
     new BuildRoad(_ref, _playerID, _start, _end, false).execute();
     _ref.removeFollowUp(this);
 
-    boolean canPlace = false;
-    for (Path p : _ref.getBoard().getPaths().values()) {
-      if (p.canPlaceRoad(_ref.getPlayerByID(_playerID))) {
-        canPlace = true;
-        break;
-      }
-    }
-
+    boolean canPlace = _ref.getBoard().getTopology()
+        .canPlaceAnyRoad(_playerID);
     if (!canPlace && _ref.getNextFollowUp(_playerID) != null) {
       _ref.removeFollowUp(new PlaceRoad(_playerID, false));
       return ImmutableMap.of(_playerID, new ActionResponse(false,
@@ -110,24 +102,11 @@ public class PlaceRoad implements FollowUpAction {
     if (playerID != _playerID) {
       throw new IllegalArgumentException("Wrong player.");
     }
-    _start = toIntersectionCoordinate(params.get("start").getAsJsonObject());
-    _end = toIntersectionCoordinate(params.get("end").getAsJsonObject());
+    _start = IntersectionCoordinate.of(params.get("start").getAsJsonObject());
+    _end = IntersectionCoordinate.of(params.get("end").getAsJsonObject());
     _isSetup = true;
   }
 
-  private IntersectionCoordinate toIntersectionCoordinate(JsonObject object) {
-    JsonObject coord1 = object.get("coord1").getAsJsonObject();
-    JsonObject coord2 = object.get("coord2").getAsJsonObject();
-    JsonObject coord3 = object.get("coord3").getAsJsonObject();
-    HexCoordinate h1 = new HexCoordinate(coord1.get("x").getAsInt(), coord1
-        .get("y").getAsInt(), coord1.get("z").getAsInt());
-    HexCoordinate h2 = new HexCoordinate(coord2.get("x").getAsInt(), coord2
-        .get("y").getAsInt(), coord2.get("z").getAsInt());
-    HexCoordinate h3 = new HexCoordinate(coord3.get("x").getAsInt(), coord3
-        .get("y").getAsInt(), coord3.get("z").getAsInt());
-    return new IntersectionCoordinate(h1, h2, h3);
-  }
-
   @Override
   public String getVerb() {
     return VERB;
@@ -6,7 +6,6 @@ import java.util.Map;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 
-import edu.brown.cs.board.Path;
 import edu.brown.cs.catan.DevelopmentCard;
 import edu.brown.cs.catan.Player;
 import edu.brown.cs.catan.Referee;
@@ -51,15 +50,7 @@ public class PlayRoadBuilding implements Action {
               null));
     }
 
-    boolean canPlace = false;
-    for (Path p : _ref.getBoard().getPaths().values()) {
-      if (p.canPlaceRoad(_player)) {
-        canPlace = true;
-        break;
-      }
-    }
-
-    if (!canPlace) {
+    if (!_ref.getBoard().getTopology().canPlaceAnyRoad(_player.getID())) {
       return ImmutableMap.of(_player.getID(), new ActionResponse(false,
           "There is nowhere for you to build a road", null));
     }
@@ -7,7 +7,6 @@ import java.util.HashMap;
 import java.util.Map;
 
 import com.google.common.collect.ImmutableMap;
-import com.google.gson.JsonObject;
 
 import edu.brown.cs.catan.Bank;
 import edu.brown.cs.catan.DevelopmentCard;
@@ -29,7 +28,8 @@ public class PlayYearOfPlenty implements Action {
   private final static double TOLERANCE = .01;
   public static final String ID = "playYearOfPlenty";
 
-  public PlayYearOfPlenty(Referee ref, int playerID, JsonObject params) {
+  public PlayYearOfPlenty(Referee ref, int playerID,
+      Map<Resource, Double> resources) {
     assert ref != null;
     _ref = ref;
     _player = _ref.getPlayerByID(playerID);
@@ -38,14 +38,11 @@ public class PlayYearOfPlenty implements Action {
       throw new IllegalArgumentException(err);
     }
     _bank = _ref.getBank();
-    JsonObject trade = params.get("resources").getAsJsonObject();
-    Map<Resource, Double> resources = new HashMap<>();
-    for (Resource res : Resource.values()) {
-      if (trade.has(res.toString())) {
-        resources.put(res, CatanFormats.round(trade.get(res.toString()).getAsDouble()));
-      }
+    Map<Resource, Double> rounded = new HashMap<>();
+    for (Map.Entry<Resource, Double> e : resources.entrySet()) {
+      rounded.put(e.getKey(), CatanFormats.round(e.getValue()));
     }
-    _resources = Collections.unmodifiableMap(resources);
+    _resources = Collections.unmodifiableMap(rounded);
   }
 
   @Override
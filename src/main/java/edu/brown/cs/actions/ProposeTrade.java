@@ -6,8 +6,6 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
-import com.google.gson.JsonObject;
-
 import edu.brown.cs.catan.Player;
 import edu.brown.cs.catan.Referee;
 import edu.brown.cs.catan.Resource;
@@ -26,7 +24,8 @@ public class ProposeTrade implements Action{
   private final static double TOLERANCE = .01;
   public static final String ID = "proposeTrade";
 
-  public ProposeTrade(Referee ref, int playerID, JsonObject params) {
+  public ProposeTrade(Referee ref, int playerID,
+      Map<Resource, Double> trade) {
     assert ref != null;
     _ref = ref;
     _player = _ref.getPlayerByID(playerID);
@@ -34,14 +33,11 @@ public class ProposeTrade implements Action{
       String err = String.format("No player exists with the id: %d", playerID);
       throw new IllegalArgumentException(err);
     }
-    JsonObject trade = params.get("trade").getAsJsonObject();
-    Map<Resource, Double> resources = new HashMap<Resource, Double>();
-    for (Resource res : Resource.values()) {
-      if (trade.has(res.toString())) {
-        resources.put(res, CatanFormats.round(trade.get(res.toString()).getAsDouble()));
-      }
+    Map<Resource, Double> rounded = new HashMap<>();
+    for (Map.Entry<Resource, Double> e : trade.entrySet()) {
+      rounded.put(e.getKey(), CatanFormats.round(e.getValue()));
     }
-    _resources = Collections.unmodifiableMap(resources);
+    _resources = Collections.unmodifiableMap(rounded);
   }
 
 
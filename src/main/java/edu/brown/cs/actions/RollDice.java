@@ -2,6 +2,7 @@ package edu.brown.cs.actions;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.PrimitiveIterator;
@@ -10,7 +11,6 @@ import java.util.Random;
 import com.google.common.collect.ImmutableList;
 import com.google.gson.JsonObject;
 
-import edu.brown.cs.board.Tile;
 import edu.brown.cs.catan.Player;
 import edu.brown.cs.catan.Referee;
 import edu.brown.cs.catan.Resource;
@@ -64,38 +64,20 @@ public class RollDice implements FollowUpAction {
     Map<Integer, ActionResponse> toRet = new HashMap<>();
 
     if (diceRoll != 7) {
-      Collection<Tile> tiles = _ref.getBoard().getTiles();
-      // Iterate through tiles on the board
-      for (Tile t : tiles) {
-        // If the tile matches the roll and does not have the robber
-        if (t.getRollNumber() == diceRoll && !t.hasRobber()) {
-          // Find out who should collect what from the intersections
-          Map<Integer, Map<Resource, Integer>> fromTile = t
-              .notifyIntersections();
-          // Iterate through this and consolidate collections for each person
-          for (int playerID : fromTile.keySet()) {
-            if (!playerResourceCount.containsKey(playerID)) {
-              playerResourceCount.put(playerID,
-                  new HashMap<Resource, Integer>());
-            }
-            Map<Resource, Integer> resourceCount = fromTile.get(playerID);
+      // One pass over what the board produces on this roll, collecting as we
+      // go and counting for the messages.
+      _ref.getBoard().getTopology().produce(diceRoll,
+          (playerID, res, amount) -> {
             Map<Resource, Integer> playerCount = playerResourceCount
                 .get(playerID);
-            for (Resource res : resourceCount.keySet()) {
-              if (playerCount.containsKey(res)) {
-                // Update the count
-                playerCount.replace(res,
-                    playerCount.get(res) + resourceCount.get(res));
-              } else {
-                playerCount.put(res, resourceCount.get(res));
-              }
-              // Make sure the player collects the resource
-              _ref.getPlayerByID(playerID).addResource(res,
-                  resourceCount.get(res), _ref.getBank());
+            if (playerCount == null) {
+              playerCount = new EnumMap<>(Resource.class);
+              playerResourceCount.put(playerID, playerCount);
             }
-          }
-        }
-      }
+            playerCount.merge(res, amount, Integer::sum);
+            _ref.getPlayerByID(playerID).addResource(res, amount,
+                _ref.getBank());
+          });
       for (Integer playerID : playerResourceCount.keySet()) {
         StringBuilder message = new StringBuilder();
         message.append(String.format("%d was rolled", diceRoll));
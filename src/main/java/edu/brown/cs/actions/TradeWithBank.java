@@ -6,7 +6,6 @@ import java.util.HashMap;
 import java.util.Map;
 
 import com.google.common.collect.ImmutableMap;
-import com.google.gson.JsonObject;
 
 import edu.brown.cs.catan.Player;
 import edu.brown.cs.catan.Referee;
@@ -27,22 +26,19 @@ public class TradeWithBank implements Action {
   private Resource _toGet;
   private double _amount;
 
-  public TradeWithBank(Referee ref, int playerID, JsonObject params) {
+  public TradeWithBank(Referee ref, int playerID, Resource toGive,
+      Resource toGet, double amount) {
     _ref = ref;
     _player = ref.getPlayerByID(playerID);
     if (_player == null) {
       throw new IllegalArgumentException("No player exists with the given ID.");
     }
-    if (!params.get("toGive").isJsonNull() && !params.get("toGet").isJsonNull()) {
-      String toGive = params.get("toGive").getAsString();
-      String toGet = params.get("toGet").getAsString();
-      _amount = params.get("amount").getAsDouble();
-      _toGive = Resource.stringToResource(toGive);
-      _toGet = Resource.stringToResource(toGet);
-    } else {
+    if (toGive == null || toGet == null) {
       throw new IllegalArgumentException("toGive and toGet cannot be null.");
     }
-
+    _toGive = toGive;
+    _toGet = toGet;
+    _amount = amount;
   }
 
   @Override
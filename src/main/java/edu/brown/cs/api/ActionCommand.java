@@ -0,0 +1,197 @@
+package edu.brown.cs.api;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonSyntaxException;
+
+import edu.brown.cs.actions.BuildCity;
+import edu.brown.cs.actions.BuildRoad;
+import edu.brown.cs.actions.BuildSettlement;
+import edu.brown.cs.actions.PlayMonopoly;
+import edu.brown.cs.actions.PlayYearOfPlenty;
+import edu.brown.cs.actions.ProposeTrade;
+import edu.brown.cs.actions.TradeWithBank;
+import edu.brown.cs.board.IntersectionCoordinate;
+import edu.brown.cs.catan.Resource;
+
+/**
+ * An action request, decoded once from the message a player sent. Decoding
+ * checks everything that doesn't depend on the game (that there is a player
+ * and an action, and that the action's coordinates, resources and amounts are
+ * there and well formed), so a malformed request is turned away before the
+ * game is locked. Follow-up actions still read their parameters from the
+ * request itself, which is kept as is.
+ */
+public class ActionCommand {
+
+  private static final Gson GSON = new Gson();
+
+  private final int _playerID;
+  private final String _action;
+  private final JsonObject _params;
+  private IntersectionCoordinate _coordinate;
+  private IntersectionCoordinate _start;
+  private IntersectionCoordinate _end;
+  private String _resource;
+  private Map<Resource, Double> _resources;
+  private Resource _toGive;
+  private Resource _toGet;
+  private double _amount;
+
+  private ActionCommand(int playerID, String action, JsonObject params) {
+    _playerID = playerID;
+    _action = action;
+    _params = params;
+  }
+
+  /**
+   * Decodes an action request from its text.
+   *
+   * @param json
+   *          The request, as JSON.
+   * @return The decoded command.
+   * @throws IllegalArgumentException
+   *           When the text isn't a JSON object, or {@link #parse(JsonObject)}
+   *           would throw.
+   */
+  public static ActionCommand parse(String json) {
+    try {
+      return parse(GSON.fromJson(json, JsonObject.class));
+    } catch (JsonSyntaxException e) {
+      throw new IllegalArgumentException("The JSON contains an error: "
+          + e.getLocalizedMessage());
+    }
+  }
+
+  /**
+   * Decodes an action request. See the README for the format of each action.
+   *
+   * @param json
+   *          The request, with a "player" and an "action" field.
+   * @return The decoded command.
+   * @throws IllegalArgumentException
+   *           When the player or action is missing, or the action's parameters
+   *           are missing or malformed.
+   */
+  public static ActionCommand parse(JsonObject json) {
+    if (json == null) {
+      throw new IllegalArgumentException("Input cannot be null.");
+    }
+    ActionCommand command;
+    try {
+      command = new ActionCommand(json.get("player").getAsInt(), json.get(
+          "action").getAsString(), json);
+    } catch (RuntimeException e) {
+      throw new IllegalArgumentException(
+          "Missing PlayerID which is required for all actions.");
+    }
+    try {
+      command.decode();
+    } catch (NullPointerException | IllegalStateException
+        | UnsupportedOperationException | ClassCastException e) {
+      throw new IllegalArgumentException(
+          "The JSON is missing a required parameter. Check documentation for more information.");
+    }
+    return command;
+  }
+
+  // reads the parameters of the actions that have them.
+  private void decode() {
+    switch (_action) {
+    case BuildCity.ID:
+    case BuildSettlement.ID:
+      _coordinate = IntersectionCoordinate.of(_params.get("coordinate")
+          .getAsJsonObject());
+      break;
+    case BuildRoad.ID:
+      _start = IntersectionCoordinate.of(_params.get("start")
+          .getAsJsonObject());
+      _end = IntersectionCoordinate.of(_params.get("end").getAsJsonObject());
+      break;
+    case PlayMonopoly.ID:
+      _resource = _params.get("resource").getAsString();
+      break;
+    case PlayYearOfPlenty.ID:
+      _resources = toResources(_params.get("resources"));
+      break;
+    case ProposeTrade.ID:
+      _resources = toResources(_params.get("trade"));
+      break;
+    case TradeWithBank.ID:
+      if (_params.get("toGive").isJsonNull()
+          || _params.get("toGet").isJsonNull()) {
+        throw new IllegalArgumentException("toGive and toGet cannot be null.");
+      }
+      _toGive = Resource.stringToResource(_params.get("toGive").getAsString());
+      _toGet = Resource.stringToResource(_params.get("toGet").getAsString());
+      _amount = _params.get("amount").getAsDouble();
+      break;
+    default:
+      break;
+    }
+  }
+
+  private static Map<Resource, Double> toResources(JsonElement element) {
+    JsonObject object = element.getAsJsonObject();
+    Map<Resource, Double> resources = new EnumMap<>(Resource.class);
+    for (Resource res : Resource.values()) {
+      if (object.has(res.toString())) {
+        resources.put(res, object.get(res.toString()).getAsDouble());
+      }
+    }
+    return Collections.unmodifiableMap(resources);
+  }
+
+  public int getPlayerID() {
+    return _playerID;
+  }
+
+  public String getAction() {
+    return _action;
+  }
+
+  /**
+   * @return The request this command was decoded from, for follow-up actions.
+   */
+  public JsonObject getParams() {
+    return _params;
+  }
+
+  public IntersectionCoordinate getCoordinate() {
+    return _coordinate;
+  }
+
+  public IntersectionCoordinate getStart() {
+    return _start;
+  }
+
+  public IntersectionCoordinate getEnd() {
+    return _end;
+  }
+
+  public String getResource() {
+    return _resource;
+  }
+
+  public Map<Resource, Double> getResources() {
+    return _resources;
+  }
+
+  public Resource getToGive() {
+    return _toGive;
+  }
+
+  public Resource getToGet() {
+    return _toGet;
+  }
+
+  public double getAmount() {
+    return _amount;
+  }
+
+}
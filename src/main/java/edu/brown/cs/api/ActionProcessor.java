@@ -2,10 +2,10 @@ package edu.brown.cs.api;
 
 import java.util.Map;
 
-import com.google.gson.Gson;
 import com.google.gson.JsonObject;
 
 import edu.brown.cs.networking.API;
+import edu.brown.cs.networking.Frame;
 import edu.brown.cs.networking.Group;
 import edu.brown.cs.networking.Networking;
 import edu.brown.cs.networking.RequestProcessor;
@@ -15,25 +15,23 @@ public class ActionProcessor implements RequestProcessor {
 
   private static final String IDENTIFIER  = "action";
   private static final String REQUEST_KEY = "requestType";
-  private static final Gson   GSON        = new Gson();
 
 
   @Override
   public boolean run(User user, Group g, JsonObject json,
       API api) {
-    json.add("player", GSON.toJsonTree(String.valueOf(user.userID())));
-    System.out.println(json);
-
-    Map<Integer, JsonObject> resp = api.performAction(json.toString());
+    json.addProperty("player", user.userID());
+    Map<Integer, JsonObject> resp = api.performAction(json);
     for(User u : g.connectedUsers()) {
       if(resp.containsKey(u.userID())) {
         json.add("content", resp.get(u.userID()));
         json.add("player", Networking.GSON.toJsonTree(u.userID()));
         u.message(json);
-        // and get game state
-        JsonObject gs = api.getGameState(u.userID());
-        gs.addProperty(REQUEST_KEY, "getGameState");
-        u.message(gs);
+        // and what changed in the game state
+        Frame gs = api.getGameStateUpdate(u.userID());
+        if (gs != null) {
+          u.message(gs);
+        }
       }
     }
     return true;
@@ -0,0 +1,69 @@
+package edu.brown.cs.api;
+
+import java.util.List;
+
+import edu.brown.cs.board.Intersection;
+import edu.brown.cs.board.Path;
+import edu.brown.cs.board.Tile;
+
+/**
+ * The parts of a board that never change during a game, already written as a
+ * "boardLayout" message: each tile's coordinate, type, number and ports, each
+ * intersection's coordinate and port, and each path's ends. Game states only
+ * carry what can change on top of it (the robber, buildings, roads and build
+ * flags), element by element in the same order, plus the layout's hash so a
+ * client can tell whether the layout it holds is the right one.
+ */
+class BoardLayout {
+
+  private final String _hash;
+  private final String _message;
+  private final List<Tile> _tiles;
+  private final List<Intersection> _intersections;
+  private final List<Path> _paths;
+
+  BoardLayout(String hash, String message, List<Tile> tiles,
+      List<Intersection> intersections, List<Path> paths) {
+    _hash = hash;
+    _message = message;
+    _tiles = tiles;
+    _intersections = intersections;
+    _paths = paths;
+  }
+
+  /**
+   * @return A hash of the layout, the same for identical boards.
+   */
+  String hash() {
+    return _hash;
+  }
+
+  /**
+   * @return The encoded "boardLayout" message.
+   */
+  String message() {
+    return _message;
+  }
+
+  /**
+   * @return The tiles, in layout order.
+   */
+  List<Tile> tiles() {
+    return _tiles;
+  }
+
+  /**
+   * @return The intersections, in layout order.
+   */
+  List<Intersection> intersections() {
+    return _intersections;
+  }
+
+  /**
+   * @return The paths, in layout order.
+   */
+  List<Path> paths() {
+    return _paths;
+  }
+
+}
@@ -1,5 +1,6 @@
 package edu.brown.cs.api;
 
+import java.util.HashMap;
 import java.util.Map;
 
 import com.google.common.collect.ImmutableMap;
@@ -13,12 +14,23 @@ import edu.brown.cs.catan.MasterReferee;
 import edu.brown.cs.catan.Referee;
 import edu.brown.cs.catan.Referee.GameStatus;
 import edu.brown.cs.networking.API;
+import edu.brown.cs.networking.Frame;
 
 public class CatanAPI implements API {
 
   public Referee _referee;
   private CatanConverter _converter;
   private ActionFactory _actionFactory;
+  private final GameStateStream _stream;
+  // written once per board, and sent once per session.
+  private BoardLayout _layout;
+  // bumped by every call that can change the game.
+  private long _version;
+  // the version that _public and _states were written at.
+  private long _cachedVersion = -1;
+  // shared by every player's state until the game changes.
+  private PublicGameState _public;
+  private final Map<Integer, EncodedGameState> _states;
 
   // don't add constructor variables to the API without talking to Nick! I use
   // CatanAPI.class.newInstance() which breaks with constructor params.
@@ -26,13 +38,61 @@ public class CatanAPI implements API {
     _referee = new MasterReferee();
     _converter = new CatanConverter();
     _actionFactory = new ActionFactory(_referee);
+    _stream = new GameStateStream();
+    _states = new HashMap<>();
+    _layout = _converter.encodeLayout(_referee.getBoard());
   }
 
+  /**
+   * Gets the layout of the board, unless the client already has it. Game
+   * states only carry what can change on the board, and refer to the layout
+   * by its hash.
+   */
+  @Override
+  public Frame getStaticState(String knownHash) {
+    synchronized (this) {
+      return _layout.hash().equals(knownHash) ? null : Frame.of(_layout
+          .message());
+    }
+  }
+
+  /**
+   * Gets the full game state for a player. This becomes the baseline that
+   * later updates for the player are diffed against. Asking again before the
+   * game changes costs a lookup.
+   */
+  @Override
+  public Frame getGameState(int playerID) {
+    synchronized (this) {
+      return Frame.of(_stream.snapshot(playerID, encodedState(playerID)));
+    }
+  }
+
+  /**
+   * Gets a patch against the last game state sent to a player. See
+   * GameStateStream for its format.
+   */
   @Override
-  public JsonObject getGameState(int playerID) {
+  public Frame getGameStateUpdate(int playerID) {
     synchronized (this) {
-      return _converter.getGameState(_referee, playerID);
+      String update = _stream.patch(playerID, encodedState(playerID));
+      return update != null ? Frame.of(update) : null;
+    }
+  }
+
+  // the player's state as of the current version, written at most once.
+  private EncodedGameState encodedState(int playerID) {
+    if (_cachedVersion != _version) {
+      _public = _converter.encodePublicState(_referee, _layout);
+      _states.clear();
+      _cachedVersion = _version;
+    }
+    EncodedGameState state = _states.get(playerID);
+    if (state == null) {
+      state = _converter.encodeGameState(_public, _referee, playerID);
+      _states.put(playerID, state);
     }
+    return state;
   }
 
   /**
@@ -52,6 +112,7 @@ public class CatanAPI implements API {
   @Override
   public int addPlayer(JsonObject playerAttributes) {
     synchronized (this) {
+      _version++;
       try {
         return _referee.addPlayer(playerAttributes.get("userName")
             .getAsString());
@@ -68,7 +129,10 @@ public class CatanAPI implements API {
       throw new UnsupportedOperationException(
           "You cannot remove a player during a game.");
     }
-    return _referee.removePlayer(id);
+    synchronized (this) {
+      _version++;
+      return _referee.removePlayer(id);
+    }
   }
 
   /**
@@ -86,53 +150,68 @@ public class CatanAPI implements API {
    */
   @Override
   public Map<Integer, JsonObject> performAction(String action) {
-    synchronized (this) {
-      if (action == null) {
-        throw new IllegalArgumentException("Input cannot be null.");
-      }
-      try {
-        Map<Integer, ActionResponse> responses = _actionFactory.createAction(
-            action).execute();
-        return _converter.responseToJSON(responses);
-      } catch (IllegalArgumentException e) {
-        System.out
-            .println("ERROR: Perform Action - " + e.getLocalizedMessage());
-        JsonObject json = new JsonObject();
-        json.add("requestError",
-            new JsonPrimitive("REQUEST ERROR: " + e.getLocalizedMessage()));
-        return ImmutableMap.of(-1, json);
-      } catch (WaitingOnActionException e) {
-        return _converter.responseToJSON(e.getResponses());
-      }
+    if (action == null) {
+      throw new IllegalArgumentException("Input cannot be null.");
+    }
+    try {
+      return performAction(ActionCommand.parse(action));
+    } catch (IllegalArgumentException e) {
+      return requestError(e);
     }
   }
 
+  /**
+   * Performs a Catan Action that has already been parsed, as above. The action
+   * is decoded before the game is locked, so malformed actions never wait for
+   * it.
+   */
+  @Override
   public Map<Integer, JsonObject> performAction(JsonObject action) {
     if (action == null) {
       throw new IllegalArgumentException("Input cannot be null.");
     }
+    try {
+      return performAction(ActionCommand.parse(action));
+    } catch (IllegalArgumentException e) {
+      return requestError(e);
+    }
+  }
+
+  /**
+   * Performs a decoded Catan Action, as above.
+   */
+  public Map<Integer, JsonObject> performAction(ActionCommand command) {
     synchronized (this) {
+      _version++;
       try {
         Map<Integer, ActionResponse> responses = _actionFactory.createAction(
-            action).execute();
+            command).execute();
         return _converter.responseToJSON(responses);
       } catch (IllegalArgumentException e) {
-        System.out
-            .println("ERROR: Perform Action - " + e.getLocalizedMessage());
-        JsonObject json = new JsonObject();
-        json.add("requestError",
-            new JsonPrimitive("REQUEST ERROR: " + e.getLocalizedMessage()));
-        return ImmutableMap.of(-1, json);
+        return requestError(e);
       } catch (WaitingOnActionException e) {
         return _converter.responseToJSON(e.getResponses());
       }
     }
   }
 
+  private static Map<Integer, JsonObject> requestError(
+      IllegalArgumentException e) {
+    System.out.println("ERROR: Perform Action - " + e.getLocalizedMessage());
+    JsonObject json = new JsonObject();
+    json.add("requestError",
+        new JsonPrimitive("REQUEST ERROR: " + e.getLocalizedMessage()));
+    return ImmutableMap.of(-1, json);
+  }
+
   @Override
   public void setSettings(JsonObject settings) {
-    _referee = new MasterReferee(new GameSettings(settings));
-    _actionFactory = new ActionFactory(_referee);
+    synchronized (this) {
+      _referee = new MasterReferee(new GameSettings(settings));
+      _actionFactory = new ActionFactory(_referee);
+      _layout = _converter.encodeLayout(_referee.getBoard());
+      _version++;
+    }
   }
 
 }
@@ -41,6 +41,28 @@ public class CatanGroupSelector implements GroupSelector {
   }
 
 
+  @Override
+  public boolean opensNewGroup(User u, Collection<Group> coll) {
+    // a user asking for a particular game joins it or nothing.
+    return !u.hasField(GAME_REQUEST_ID)
+        && coll.stream().noneMatch(g -> g.hasUser(u))
+        && desiredSize(u) != -1;
+  }
+
+
+  // the number of players u asked for, or -1 if it isn't a number or a
+  // playable size.
+  private static int desiredSize(User u) {
+    int desiredSize;
+    try {
+      desiredSize = Integer.parseInt(u.getField(NUM_PLAYERS));
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+    return desiredSize < 2 || desiredSize > 4 ? -1 : desiredSize;
+  }
+
+
   @Override
   public Group selectFor(User u, Collection<Group> coll) {
     Optional<Group> usersExistingGroup =
@@ -62,15 +84,10 @@ public class CatanGroupSelector implements GroupSelector {
     }
     System.out.println("No game requested.");
 
-    int desiredSize = -1;
-    try {
-      desiredSize = Integer.parseInt(u.getField(NUM_PLAYERS));
-    } catch (NumberFormatException e) {
-      return null;
-    }
-    if (desiredSize < 2 || desiredSize > 4) {
-      System.out
-          .println("ERROR: Size requested out of bounds : " + desiredSize);
+    int desiredSize = desiredSize(u);
+    if (desiredSize == -1) {
+      System.out.println(
+          "ERROR: Size requested out of bounds : " + u.getField(NUM_PLAYERS));
       return null;
     }
     int victoryPoints = Integer.parseInt(u.getField(VICTORY_POINTS));
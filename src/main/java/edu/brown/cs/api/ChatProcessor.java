@@ -35,11 +35,7 @@ public class ChatProcessor implements RequestProcessor {
         System.currentTimeMillis());
     g.logMessage(m);
 
-    boolean success = true;
-    for (User other : g.connectedUsers()) {
-      success &= other.message(m.asJson());
-    }
-    return success;
+    return g.broadcast(m.asJson());
   }
 
 
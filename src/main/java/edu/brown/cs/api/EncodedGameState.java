@@ -0,0 +1,97 @@
+package edu.brown.cs.api;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A player's game state, already written as JSON but kept in pieces: one
+ * encoded value per top-level field, and one per tile, intersection and path on
+ * the board. Splicing the pieces back together gives the full state; comparing
+ * them piece by piece gives a patch.
+ */
+class EncodedGameState {
+
+  static final String BOARD = "board";
+
+  private final Map<String, String> _fields;
+  private final Map<String, List<String>> _board;
+
+  /**
+   * @param fields
+   *          Encoded top-level fields, in output order. The board's entry is
+   *          ignored and rebuilt from {@code board}, but marks its position.
+   * @param board
+   *          Encoded board elements, by part, in output order.
+   */
+  EncodedGameState(Map<String, String> fields, Map<String, List<String>> board) {
+    _board = board;
+    _fields = new LinkedHashMap<>(fields);
+    if (_fields.containsKey(BOARD)) {
+      _fields.put(BOARD, joinBoard(board));
+    }
+  }
+
+  /**
+   * @return The encoded top-level fields, in output order.
+   */
+  Map<String, String> fields() {
+    return Collections.unmodifiableMap(_fields);
+  }
+
+  /**
+   * @return The encoded board elements, by part.
+   */
+  Map<String, List<String>> board() {
+    return Collections.unmodifiableMap(_board);
+  }
+
+  /**
+   * @return The whole state as a JSON object.
+   */
+  public String toJson() {
+    StringBuilder json = new StringBuilder();
+    appendFields(json);
+    return json.append('}').toString();
+  }
+
+  /**
+   * Appends the state as an unterminated JSON object, so that callers can add
+   * fields of their own before closing it.
+   *
+   * @param json
+   *          Where to write.
+   */
+  void appendFields(StringBuilder json) {
+    json.append('{');
+    boolean first = true;
+    for (Map.Entry<String, String> e : _fields.entrySet()) {
+      if (!first) {
+        json.append(',');
+      }
+      first = false;
+      appendName(json, e.getKey()).append(e.getValue());
+    }
+  }
+
+  static StringBuilder appendName(StringBuilder json, String name) {
+    return json.append('"').append(name).append("\":");
+  }
+
+  private static String joinBoard(Map<String, List<String>> board) {
+    StringBuilder json = new StringBuilder("{");
+    boolean first = true;
+    for (Map.Entry<String, List<String>> part : board.entrySet()) {
+      if (!first) {
+        json.append(',');
+      }
+      first = false;
+      appendName(json, part.getKey()).append('[');
+      json.append(String.join(",", part.getValue()));
+      json.append(']');
+    }
+    return json.append('}').toString();
+  }
+
+}
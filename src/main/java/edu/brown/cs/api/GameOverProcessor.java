@@ -15,9 +15,7 @@ public class GameOverProcessor implements RequestProcessor {
   public boolean run(User user, Group g, JsonObject json,
       API api) {
     json.add("departedUser", Networking.GSON.toJsonTree(user));
-    for (User u : g.connectedUsers()) {
-      u.message(json);
-    }
+    g.broadcast(json);
     System.out.println("GAMEOVERPROCESSED : " + json);
     g.clear();
     return true;
@@ -0,0 +1,174 @@
+package edu.brown.cs.api;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Versions the game state sent to each player. A full snapshot starts a new
+ * baseline; after that, each update is a patch against the last state sent to
+ * that player, containing only the top-level fields and board elements that
+ * changed. Every message carries the player's state version, and a patch also
+ * carries the version it applies to, so a client that missed a message can
+ * notice the gap and ask for a new snapshot.
+ *
+ * States are compared and sent as their encoded pieces, so neither a snapshot
+ * nor a patch builds a JSON tree. A state that is the very object last sent
+ * is not compared at all: a repeated snapshot reuses the last one's version
+ * and text, and a repeated patch is empty.
+ */
+class GameStateStream {
+
+  private static final String REQUEST_KEY = "requestType";
+
+  private final Map<Integer, Baseline> _sent = new HashMap<>();
+
+  /**
+   * Record {@code state} as the new baseline for {@code playerID}.
+   *
+   * @param playerID
+   *          The player the state is for.
+   * @param state
+   *          The player's full game state.
+   * @return The state, stamped with its version, as JSON.
+   */
+  public String snapshot(int playerID, EncodedGameState state) {
+    Baseline b = _sent.get(playerID);
+    if (b != null && b.state == state) {
+      return b.snapshot();
+    }
+    b = new Baseline(b == null ? 1 : b.version + 1, state);
+    _sent.put(playerID, b);
+    return b.snapshot();
+  }
+
+  /**
+   * Diff {@code state} against the last state sent to {@code playerID}.
+   *
+   * @param playerID
+   *          The player the state is for.
+   * @param state
+   *          The player's full game state.
+   * @return A patch, a full snapshot if nothing has been sent to the player
+   *         yet, or null if nothing changed. Either way, as JSON.
+   */
+  public String patch(int playerID, EncodedGameState state) {
+    Baseline b = _sent.get(playerID);
+    if (b == null) {
+      return snapshot(playerID, state);
+    }
+    if (b.state == state) {
+      return null;
+    }
+    Map<String, String> before = b.state.fields();
+    Map<String, String> after = state.fields();
+
+    Members set = new Members();
+    StringBuilder unset = new StringBuilder();
+    Members board = new Members();
+    if (!diffBoard(b.state.board(), state.board(), board)) {
+      // the board changed shape, so send all of it.
+      board = new Members();
+      set.add(EncodedGameState.BOARD, after.get(EncodedGameState.BOARD));
+    }
+    for (Map.Entry<String, String> e : after.entrySet()) {
+      if (!e.getKey().equals(EncodedGameState.BOARD)
+          && !e.getValue().equals(before.get(e.getKey()))) {
+        set.add(e.getKey(), e.getValue());
+      }
+    }
+    for (String name : before.keySet()) {
+      if (!after.containsKey(name)) {
+        unset.append(unset.length() == 0 ? "" : ",").append('"').append(name)
+            .append('"');
+      }
+    }
+
+    if (set.isEmpty() && unset.length() == 0 && board.isEmpty()) {
+      return null;
+    }
+
+    int version = b.version + 1;
+    _sent.put(playerID, new Baseline(version, state));
+    StringBuilder json = new StringBuilder("{");
+    EncodedGameState.appendName(json, REQUEST_KEY).append(
+        "\"gameStatePatch\",");
+    EncodedGameState.appendName(json, "version").append(version).append(',');
+    EncodedGameState.appendName(json, "base").append(b.version).append(',');
+    EncodedGameState.appendName(json, "set").append(set).append(',');
+    EncodedGameState.appendName(json, "unset").append('[').append(unset)
+        .append("],");
+    EncodedGameState.appendName(json, "board").append(board);
+    return json.append('}').toString();
+  }
+
+  // board elements are diffed by position, since the board never changes shape.
+  // returns false if it somehow does.
+  private static boolean diffBoard(Map<String, List<String>> before,
+      Map<String, List<String>> after, Members board) {
+    if (!before.keySet().equals(after.keySet())) {
+      return false;
+    }
+    for (Map.Entry<String, List<String>> part : after.entrySet()) {
+      List<String> old = before.get(part.getKey());
+      List<String> now = part.getValue();
+      if (old.size() != now.size()) {
+        return false;
+      }
+      Members changed = new Members();
+      for (int i = 0; i < now.size(); i++) {
+        if (!now.get(i).equals(old.get(i))) {
+          changed.add(String.valueOf(i), now.get(i));
+        }
+      }
+      if (!changed.isEmpty()) {
+        board.add(part.getKey(), changed.toString());
+      }
+    }
+    return true;
+  }
+
+  // a JSON object built from already encoded values.
+  private static class Members {
+    private final StringBuilder _json = new StringBuilder();
+
+    void add(String name, String encoded) {
+      _json.append(_json.length() == 0 ? "" : ",");
+      EncodedGameState.appendName(_json, name).append(encoded);
+    }
+
+    boolean isEmpty() {
+      return _json.length() == 0;
+    }
+
+    @Override
+    public String toString() {
+      return "{" + _json + "}";
+    }
+  }
+
+  private static class Baseline {
+    private final int version;
+    private final EncodedGameState state;
+    private String snapshot;
+
+    Baseline(int version, EncodedGameState state) {
+      this.version = version;
+      this.state = state;
+    }
+
+    // the state stamped with its version, written the first time it's asked.
+    String snapshot() {
+      if (snapshot == null) {
+        StringBuilder json = new StringBuilder();
+        state.appendFields(json);
+        json.append(',');
+        EncodedGameState.appendName(json, REQUEST_KEY).append(
+            "\"getGameState\",");
+        EncodedGameState.appendName(json, "version").append(version);
+        snapshot = json.append('}').toString();
+      }
+      return snapshot;
+    }
+  }
+}
@@ -0,0 +1,474 @@
+package edu.brown.cs.api;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.base.Ascii;
+import com.google.common.hash.Hashing;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonWriter;
+
+import edu.brown.cs.actions.FollowUpAction;
+import edu.brown.cs.board.Board;
+import edu.brown.cs.board.Building;
+import edu.brown.cs.board.HexCoordinate;
+import edu.brown.cs.board.Intersection;
+import edu.brown.cs.board.IntersectionCoordinate;
+import edu.brown.cs.board.Path;
+import edu.brown.cs.board.Port;
+import edu.brown.cs.board.Road;
+import edu.brown.cs.board.Tile;
+import edu.brown.cs.catan.DevelopmentCard;
+import edu.brown.cs.catan.GameSettings;
+import edu.brown.cs.catan.Player;
+import edu.brown.cs.catan.Referee;
+import edu.brown.cs.catan.Referee.GameStatus;
+import edu.brown.cs.catan.Resource;
+
+/**
+ * Writes a player's game state straight from the Referee and Board as JSON,
+ * with no intermediate objects or JSON tree. The board's layout is written once
+ * per game with writeLayout; states only hold what changes on top of it, and
+ * merging the two element by element gives the full game state.
+ * The public part of the state is written once with writePublic and then
+ * spliced into each player's state. The buffer is reused between calls, so a
+ * writer must only be used by one thread at a time.
+ */
+class GameStateWriter {
+
+  private static final String[] BOARD_PARTS = {"tiles", "intersections",
+      "paths"};
+  private static final String ROBBER    = "{\"hasRobber\":true}";
+  private static final String NO_ROBBER = "{\"hasRobber\":false}";
+
+  private final StringWriter _buffer;
+  private final JsonWriter _out;
+  private final TypeAdapter<Map<Resource, Double>> _resourceMap;
+  private final TypeAdapter<Map<DevelopmentCard, Integer>> _devCardMap;
+  private final TypeAdapter<Port> _port;
+  private final TypeAdapter<GameSettings> _settings;
+  private final TypeAdapter<JsonElement> _json;
+
+  GameStateWriter(Gson gson) {
+    _buffer = new StringWriter();
+    _out = new JsonWriter(_buffer);
+    // matches JsonObject.toString(), which is what clients got before.
+    _out.setLenient(true);
+    _out.setSerializeNulls(false);
+    _resourceMap = gson.getAdapter(new TypeToken<Map<Resource, Double>>() {
+    });
+    _devCardMap = gson
+        .getAdapter(new TypeToken<Map<DevelopmentCard, Integer>>() {
+        });
+    _port = gson.getAdapter(Port.class);
+    _settings = gson.getAdapter(GameSettings.class);
+    _json = gson.getAdapter(JsonElement.class);
+  }
+
+  /**
+   * Writes the game state of a player.
+   *
+   * @param ref
+   *          The referee of the game.
+   * @param playerID
+   *          The player the state is for.
+   * @return The state, in encoded pieces.
+   */
+  public EncodedGameState write(Referee ref, int playerID) {
+    return write(writePublic(ref, writeLayout(ref.getBoard())), ref,
+        playerID);
+  }
+
+  /**
+   * Writes the parts of a board that don't change during a game.
+   *
+   * @param board
+   *          The board of the game.
+   * @return The layout, as a "boardLayout" message.
+   */
+  public BoardLayout writeLayout(Board board) {
+    try {
+      List<Tile> tiles = new ArrayList<>(board.getTiles());
+      List<Intersection> intersections = new ArrayList<>(board
+          .getIntersections().values());
+      List<Path> paths = new ArrayList<>(board.getPaths().values());
+      _out.beginObject();
+      _out.name(BOARD_PARTS[0]).beginArray();
+      for (Tile tile : tiles) {
+        writeTile(tile);
+      }
+      _out.endArray();
+      _out.name(BOARD_PARTS[1]).beginArray();
+      for (Intersection i : intersections) {
+        writeIntersection(i);
+      }
+      _out.endArray();
+      _out.name(BOARD_PARTS[2]).beginArray();
+      for (Path path : paths) {
+        writePath(path);
+      }
+      _out.endArray();
+      _out.endObject();
+      String layout = take();
+      String hash = Hashing.murmur3_128()
+          .hashString(layout, StandardCharsets.UTF_8).toString();
+      String message = "{\"requestType\":\"boardLayout\",\"boardHash\":\""
+          + hash + "\"," + layout.substring(1);
+      return new BoardLayout(hash, message, tiles, intersections, paths);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e); // a StringWriter never throws.
+    }
+  }
+
+  /**
+   * Writes the part of the game state that every player shares.
+   *
+   * @param ref
+   *          The referee of the game.
+   * @param layout
+   *          The layout of the referee's board.
+   * @return The public state, in encoded pieces.
+   */
+  public PublicGameState writePublic(Referee ref, BoardLayout layout) {
+    try {
+      Referee readOnly = ref.getReadOnlyReferee();
+      Map<String, String> fields = new HashMap<>();
+      if (ref.getGameStatus() != GameStatus.WAITING) {
+        writeIntegers(ref.getTurnOrder());
+        fields.put("turnOrder", take());
+      }
+      if (ref.getWinner() != null) {
+        _out.value(ref.getWinner().getID());
+        fields.put("winner", take());
+      }
+      _out.value(ref.currentPlayer() != null ? ref.currentPlayer().getID()
+          : -1);
+      fields.put("currentTurn", take());
+      _out.beginArray();
+      for (Player p : ref.getPlayers()) {
+        writePlayer(p, readOnly);
+      }
+      _out.endArray();
+      fields.put("players", take());
+      if (ref.getGameSettings() != null) {
+        _settings.write(_out, ref.getGameSettings());
+        fields.put("settings", take());
+      }
+      writeStats(ref);
+      fields.put("stats", take());
+      _out.value(layout.hash());
+      fields.put("boardHash", take());
+
+      List<String> tiles = new ArrayList<>();
+      for (Tile tile : layout.tiles()) {
+        tiles.add(tile.hasRobber() ? ROBBER : NO_ROBBER);
+      }
+      List<String> intersectionPrefixes = new ArrayList<>();
+      for (Intersection i : layout.intersections()) {
+        writeBuilding(i.getBuilding());
+        intersectionPrefixes.add(takeOpen());
+      }
+      List<String> pathPrefixes = new ArrayList<>();
+      for (Path path : layout.paths()) {
+        writeRoad(path.getRoad());
+        pathPrefixes.add(takeOpen());
+      }
+      return new PublicGameState(fields, tiles, layout.intersections(),
+          intersectionPrefixes, layout.paths(), pathPrefixes);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e); // a StringWriter never throws.
+    }
+  }
+
+  /**
+   * Writes the game state of a player, reusing the public part.
+   *
+   * @param pub
+   *          The public state, written from the game as it is now.
+   * @param ref
+   *          The referee of the game.
+   * @param playerID
+   *          The player the state is for.
+   * @return The state, in encoded pieces.
+   */
+  public EncodedGameState write(PublicGameState pub, Referee ref,
+      int playerID) {
+    try {
+      Referee readOnly = ref.getReadOnlyReferee();
+      Map<String, String> fields = new LinkedHashMap<>();
+      Map<String, List<String>> board = new LinkedHashMap<>();
+
+      _out.value(playerID);
+      fields.put("playerID", take());
+      copy(pub, "turnOrder", fields);
+      copy(pub, "winner", fields);
+      writeHand(ref.getPlayerByID(playerID));
+      fields.put("hand", take());
+      copy(pub, "boardHash", fields);
+      fields.put(EncodedGameState.BOARD, null);
+      copy(pub, "currentTurn", fields);
+      FollowUpAction followUp = ref.getNextFollowUp(playerID);
+      if (followUp != null) {
+        writeFollowUp(followUp);
+        fields.put("followUp", take());
+      }
+      copy(pub, "players", fields);
+      copy(pub, "settings", fields);
+      copy(pub, "stats", fields);
+
+      List<String> intersections = new ArrayList<>();
+      for (int i = 0; i < pub.intersections().size(); i++) {
+        intersections.add(close(pub.intersectionPrefixes().get(i),
+            "canBuildSettlement", pub.intersections().get(i)
+                .canPlaceSettlement(readOnly, playerID)));
+      }
+      List<String> paths = new ArrayList<>();
+      boolean setup = readOnly.getGameStatus() == GameStatus.SETUP;
+      Player player = readOnly.getPlayerByID(playerID);
+      for (int i = 0; i < pub.paths().size(); i++) {
+        Path path = pub.paths().get(i);
+        boolean canBuildRoad = setup ? path.canPlaceSetupRoad(readOnly
+            .getSetup()) : path.canPlaceRoad(player);
+        paths.add(close(pub.pathPrefixes().get(i), "canBuildRoad",
+            canBuildRoad));
+      }
+      board.put(BOARD_PARTS[0], pub.tiles());
+      board.put(BOARD_PARTS[1], intersections);
+      board.put(BOARD_PARTS[2], paths);
+      return new EncodedGameState(fields, board);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e); // a StringWriter never throws.
+    }
+  }
+
+  private static void copy(PublicGameState pub, String field,
+      Map<String, String> fields) {
+    String encoded = pub.fields().get(field);
+    if (encoded != null) {
+      fields.put(field, encoded);
+    }
+  }
+
+  // finish an object left open by takeOpen with one boolean member.
+  private static String close(String prefix, String name, boolean value) {
+    StringBuilder json = new StringBuilder(prefix.length() + name.length()
+        + 10).append(prefix);
+    if (prefix.length() > 1) {
+      json.append(',');
+    }
+    return EncodedGameState.appendName(json, name).append(value).append('}')
+        .toString();
+  }
+
+  // everything written since the last take, as a string.
+  private String take() throws IOException {
+    _out.flush();
+    String piece = _buffer.toString();
+    _buffer.getBuffer().setLength(0);
+    return piece;
+  }
+
+  // an object just written, without its closing brace.
+  private String takeOpen() throws IOException {
+    String piece = take();
+    return piece.substring(0, piece.length() - 1);
+  }
+
+  private void writeIntegers(List<Integer> ints) throws IOException {
+    _out.beginArray();
+    for (Integer i : ints) {
+      if (i == null) {
+        _out.nullValue();
+      } else {
+        _out.value(i);
+      }
+    }
+    _out.endArray();
+  }
+
+  private void writeHand(Player player) throws IOException {
+    _out.beginObject();
+    if (player.getResources() != null) {
+      _out.name("resources");
+      _resourceMap.write(_out, player.getResources());
+    }
+    if (player.getDevCards() != null) {
+      _out.name("devCards");
+      _devCardMap.write(_out, player.getDevCards());
+    }
+    _out.name("canBuildRoad").value(player.canBuildRoad());
+    _out.name("canBuildSettlement").value(player.canBuildSettlement());
+    _out.name("canBuildCity").value(player.canBuildCity());
+    _out.name("canBuyDevCard").value(player.canBuyDevelopmentCard());
+    _out.endObject();
+  }
+
+  // everything but hasRobber, which can change.
+  private void writeTile(Tile tile) throws IOException {
+    _out.beginObject();
+    if (tile.getCoordinate() != null) {
+      _out.name("hexCoordinate");
+      writeHex(tile.getCoordinate());
+    }
+    if (tile.getType() != null) {
+      _out.name("type").value(tile.getType().name());
+    }
+    _out.name("number").value(tile.getRollNumber());
+    if (tile.getPortLocations() != null) {
+      _out.name("portLocations").beginArray();
+      for (IntersectionCoordinate c : tile.getPortLocations()) {
+        writeIntersectionCoordinate(c);
+      }
+      _out.endArray();
+    }
+    if (tile.getPortType() != null) {
+      _out.name("portType").value(tile.getPortType().name());
+    }
+    _out.endObject();
+  }
+
+  // everything but the building and build flag, which can change.
+  private void writeIntersection(Intersection i) throws IOException {
+    _out.beginObject();
+    if (i.getPort() != null) {
+      _out.name("port");
+      _port.write(_out, i.getPort());
+    }
+    if (i.getPosition() != null) {
+      _out.name("coordinate");
+      writeIntersectionCoordinate(i.getPosition());
+    }
+    _out.endObject();
+  }
+
+  // everything but the road and build flag, which can change.
+  private void writePath(Path path) throws IOException {
+    _out.beginObject();
+    if (path.getStart().getPosition() != null) {
+      _out.name("start");
+      writeIntersectionCoordinate(path.getStart().getPosition());
+    }
+    if (path.getEnd().getPosition() != null) {
+      _out.name("end");
+      writeIntersectionCoordinate(path.getEnd().getPosition());
+    }
+    _out.endObject();
+  }
+
+  // an intersection's overlay, without canBuildSettlement, which differs
+  // between players.
+  private void writeBuilding(Building building) throws IOException {
+    _out.beginObject();
+    if (building != null) {
+      _out.name("building").beginObject();
+      _out.name("player").value(
+          building.getPlayer() != null ? building.getPlayer().getID() : 0);
+      _out.name("type").value(
+          Ascii.toLowerCase(building.getClass().getSimpleName()));
+      _out.endObject();
+    }
+    _out.endObject();
+  }
+
+  // a path's overlay, without canBuildRoad, which differs between players.
+  private void writeRoad(Road road) throws IOException {
+    _out.beginObject();
+    if (road != null) {
+      _out.name("road").beginObject();
+      _out.name("player").value(road.getPlayer().getID());
+      _out.endObject();
+    }
+    _out.endObject();
+  }
+
+  private void writeIntersectionCoordinate(IntersectionCoordinate c)
+      throws IOException {
+    if (c == null) {
+      _out.nullValue();
+      return;
+    }
+    _out.beginObject();
+    writeHexField("coord1", c.getCoord1());
+    writeHexField("coord2", c.getCoord2());
+    writeHexField("coord3", c.getCoord3());
+    _out.endObject();
+  }
+
+  private void writeHexField(String name, HexCoordinate h) throws IOException {
+    if (h != null) {
+      _out.name(name);
+      writeHex(h);
+    }
+  }
+
+  private void writeHex(HexCoordinate h) throws IOException {
+    _out.beginObject();
+    _out.name("x").value(h.getX());
+    _out.name("y").value(h.getY());
+    _out.name("z").value(h.getZ());
+    _out.endObject();
+  }
+
+  private void writeFollowUp(FollowUpAction followUp) throws IOException {
+    _out.beginObject();
+    if (followUp.getID() != null) {
+      _out.name("actionName").value(followUp.getID());
+    }
+    if (followUp.getData() != null) {
+      _out.name("actionData");
+      _json.write(_out, followUp.getData());
+    }
+    _out.endObject();
+  }
+
+  private void writePlayer(Player p, Referee r) throws IOException {
+    _out.beginObject();
+    if (p.getName() != null) {
+      _out.name("name").value(p.getName());
+    }
+    _out.name("id").value(p.getID());
+    if (p.getColor() != null) {
+      _out.name("color").value(p.getColor());
+    }
+    _out.name("numSettlements").value(p.numSettlements());
+    _out.name("numCities").value(p.numCities());
+    _out.name("numPlayedKnights").value(p.numPlayedKnights());
+    _out.name("numRoads").value(p.numRoads());
+    _out.name("longestRoad").value(r.hasLongestRoad(p.getID()));
+    _out.name("largestArmy").value(r.hasLargestArmy(p.getID()));
+    _out.name("victoryPoints").value(r.getNumPublicPoints(p.getID()));
+    _out.name("numResourceCards").value(p.getNumResourceCards());
+    _out.name("numDevelopmentCards").value(p.getNumDevelopmentCards());
+    Map<Resource, Double> rates = r.getBankRates(p.getID());
+    if (rates != null) {
+      _out.name("rates");
+      _resourceMap.write(_out, rates);
+    }
+    _out.endObject();
+  }
+
+  private void writeStats(Referee ref) throws IOException {
+    _out.beginObject();
+    int[] rolls = ref.getGameStats().getRollsArray();
+    if (rolls != null) {
+      _out.name("rolls").beginArray();
+      for (int roll : rolls) {
+        _out.value(roll);
+      }
+      _out.endArray();
+    }
+    _out.name("turn").value(ref.getTurn().getTurnNum());
+    _out.endObject();
+  }
+
+}
@@ -3,6 +3,7 @@ package edu.brown.cs.api;
 import com.google.gson.JsonObject;
 
 import edu.brown.cs.networking.API;
+import edu.brown.cs.networking.Frame;
 import edu.brown.cs.networking.Group;
 import edu.brown.cs.networking.RequestProcessor;
 import edu.brown.cs.networking.User;
@@ -12,14 +13,19 @@ public class GetGameStateProcessor implements RequestProcessor {
 
   private static final String IDENTIFIER = "getGameState";
   private static final String REQUEST_KEY = "requestType";
+  private static final String HASH_KEY = "boardHash";
 
 
   @Override
   public boolean run(User user, Group g, JsonObject json,
       API api) {
-    JsonObject resp = api.getGameState(user.userID());
-    resp.addProperty("requestType", "getGameState");
-    return user.message(resp);
+    String known = json.has(HASH_KEY) && !json.get(HASH_KEY).isJsonNull()
+        ? json.get(HASH_KEY).getAsString() : null;
+    Frame layout = api.getStaticState(known);
+    if (layout != null) {
+      user.message(layout);
+    }
+    return user.message(api.getGameState(user.userID()));
   }
 
 
@@ -0,0 +1,78 @@
+package edu.brown.cs.api;
+
+import java.util.List;
+import java.util.Map;
+
+import edu.brown.cs.board.Intersection;
+import edu.brown.cs.board.Path;
+
+/**
+ * The part of the game state that is the same for every player, already
+ * written as JSON: turn order, winner, current turn, players, settings, stats
+ * and the board's layout hash, plus the overlay of every tile, intersection and
+ * path without its per-player build flag. It is written once per change to the
+ * game and shared by the states of all the players.
+ */
+class PublicGameState {
+
+  private final Map<String, String> _fields;
+  private final List<String> _tiles;
+  private final List<Intersection> _intersections;
+  private final List<String> _intersectionPrefixes;
+  private final List<Path> _paths;
+  private final List<String> _pathPrefixes;
+
+  PublicGameState(Map<String, String> fields, List<String> tiles,
+      List<Intersection> intersections, List<String> intersectionPrefixes,
+      List<Path> paths, List<String> pathPrefixes) {
+    _fields = fields;
+    _tiles = tiles;
+    _intersections = intersections;
+    _intersectionPrefixes = intersectionPrefixes;
+    _paths = paths;
+    _pathPrefixes = pathPrefixes;
+  }
+
+  /**
+   * @return The encoded public top-level fields, by name.
+   */
+  Map<String, String> fields() {
+    return _fields;
+  }
+
+  /**
+   * @return The encoded tile overlays, in layout order.
+   */
+  List<String> tiles() {
+    return _tiles;
+  }
+
+  /**
+   * @return The intersections, in layout order.
+   */
+  List<Intersection> intersections() {
+    return _intersections;
+  }
+
+  /**
+   * @return Each intersection's encoded overlay, left open for its build flag.
+   */
+  List<String> intersectionPrefixes() {
+    return _intersectionPrefixes;
+  }
+
+  /**
+   * @return The paths, in layout order.
+   */
+  List<Path> paths() {
+    return _paths;
+  }
+
+  /**
+   * @return Each path's encoded overlay, left open for its build flag.
+   */
+  List<String> pathPrefixes() {
+    return _pathPrefixes;
+  }
+
+}
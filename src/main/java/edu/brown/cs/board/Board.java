@@ -18,7 +18,6 @@ import static edu.brown.cs.catan.Settings.ROLL_NUMS;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -36,11 +35,12 @@ import edu.brown.cs.catan.Settings;
  *
  */
 public class Board {
-  private Collection<Tile> _tiles;
+  private List<Tile> _tiles;
+  // the number of each tile by coordinate, shared by every board.
+  private Map<HexCoordinate, Integer> _tileIndex;
   private Map<IntersectionCoordinate, Intersection> _intersections;
   private Map<PathCoordinate, Path> _paths;
-  private final List<HexCoordinate> PORT_LOCATION;
-  private final static int DEPTH = 2;
+  private Topology _topology;
 
   /**
    * Adds a certain number of tiles of a specific type to a list to shuffle when
@@ -59,91 +59,6 @@ public class Board {
     }
   }
 
-  /**
-   * Gets permutations of sea coordinates and puts them into a list.
-   *
-   * @return List of HexCoordinates of the location of Sea Tiles.
-   */
-  private List<HexCoordinate> getSeaPermutations() {
-    List<HexCoordinate> coords = new ArrayList<HexCoordinate>();
-    int[] oneThreeCoords = { 0, 0, 3 };
-    int[] oneThreeOneTwoCoords = { 0, 2, 3 };
-    int[] oneThreeOneOneCoords = { 0, 1, 3 };
-    int[] twoThreeCoords = { 0, 3, 3 };
-
-    coords.add(new HexCoordinate(oneThreeCoords[0], oneThreeCoords[1], oneThreeCoords[2]));
-    while (permute(oneThreeCoords)) {
-      coords.add(new HexCoordinate(oneThreeCoords[0], oneThreeCoords[1], oneThreeCoords[2]));
-    }
-
-    coords.add(new HexCoordinate(oneThreeOneTwoCoords[0], oneThreeOneTwoCoords[1],
-        oneThreeOneTwoCoords[2]));
-    while (permute(oneThreeOneTwoCoords)) {
-      coords.add(new HexCoordinate(oneThreeOneTwoCoords[0], oneThreeOneTwoCoords[1],
-          oneThreeOneTwoCoords[2]));
-    }
-
-    coords.add(new HexCoordinate(oneThreeOneOneCoords[0], oneThreeOneOneCoords[1],
-        oneThreeOneOneCoords[2]));
-    while (permute(oneThreeOneOneCoords)) {
-      coords.add(new HexCoordinate(oneThreeOneOneCoords[0], oneThreeOneOneCoords[1],
-          oneThreeOneOneCoords[2]));
-    }
-
-    coords.add(new HexCoordinate(twoThreeCoords[0], twoThreeCoords[1], twoThreeCoords[2]));
-    while (permute(twoThreeCoords)) {
-      coords.add(new HexCoordinate(twoThreeCoords[0], twoThreeCoords[1], twoThreeCoords[2]));
-    }
-    return coords;
-  }
-
-  /**
-   * Returns true if there are possible permutations of the array.
-   *
-   * @param coords
-   *          Array to permute
-   * @return Boolean stating if there are more permutations
-   */
-  private boolean permute(int[] coords) {
-    int k = coords.length - 2;
-    while (coords[k] >= coords[k + 1]) {
-      k--;
-      if (k < 0) {
-        return false;
-      }
-    }
-    int l = coords.length - 1;
-    while (coords[k] >= coords[l]) {
-      l--;
-    }
-    swap(coords, k, l);
-    int length = coords.length - (k + 1);
-    for (int i = 0; i < length / 2; i++) {
-      swap(coords, k + 1 + i, coords.length - i - 1);
-    }
-    return true;
-  }
-
-  private void swap(int[] coords, int idx1, int idx2) {
-    int tmp = coords[idx1];
-    coords[idx1] = coords[idx2];
-    coords[idx2] = tmp;
-  }
-
-  /**
-   * Tells the tiles what was rolled.
-   *
-   * @param roll
-   *          Num that was rolled.
-   */
-  public void notifyTiles(int roll) {
-    for (Tile t : _tiles) {
-      if (t.getRollNumber() == roll) {
-        t.notifyIntersections();
-      }
-    }
-  }
-
   @Override
   public String toString() {
     StringBuilder toRet = new StringBuilder();
@@ -183,27 +98,19 @@ public class Board {
   }
 
   /**
-   * Sets the port locations for a standard board size;
-   * 
-   * @return List of the coordinates of the port locations for the standard
-   *         board.
+   * Getter for the topology.
+   *
+   * @return The board's intersections, paths and tiles by number, with what
+   *         is next to what.
    */
-  private List<HexCoordinate> setPortLocations() {
-    List<HexCoordinate> toRet = new ArrayList<HexCoordinate>();
-    toRet.add(new HexCoordinate(0, 0, 3));
-    toRet.add(new HexCoordinate(0, 2, 3));
-    toRet.add(new HexCoordinate(0, 3, 2));
-    toRet.add(new HexCoordinate(0, 3, 0));
-    toRet.add(new HexCoordinate(2, 3, 0));
-    toRet.add(new HexCoordinate(3, 2, 0));
-    toRet.add(new HexCoordinate(3, 0, 0));
-    toRet.add(new HexCoordinate(3, 0, 2));
-    toRet.add(new HexCoordinate(2, 0, 3));
-    return toRet;
+  public Topology getTopology() {
+    return _topology;
   }
 
   /**
-   * Constructor for the Board.
+   * Constructor for the Board. The shape of the board is the same for every
+   * game and shared between them; only the tiles' types and numbers, the robber
+   * and what is built are the board's own.
    *
    * @param settings
    *          Settings for how the board should be made.
@@ -226,123 +133,83 @@ public class Board {
         Collections.shuffle(availTiles);
       } while ((availTiles.get(0) == DESERT));
     }
-    // Sets the port locations
-    PORT_LOCATION = setPortLocations();
+    BoardGeometry geometry = BoardGeometry.standard();
+    List<Intersection> intersections = new ArrayList<>(geometry
+        .getIntersections().size());
+    for (IntersectionCoordinate coord : geometry.getIntersections()) {
+      intersections.add(new Intersection(coord));
+    }
+    List<Path> paths = new ArrayList<>(geometry.getPaths().size());
+    for (int p = 0; p < geometry.getPaths().size(); p++) {
+      paths.add(new Path(intersections.get(geometry.pathEnds[2 * p]),
+          intersections.get(geometry.pathEnds[2 * p + 1])));
+    }
 
-    Map<IntersectionCoordinate, Intersection> intersections = new HashMap<IntersectionCoordinate, Intersection>();
-    Map<PathCoordinate, Path> paths = new HashMap<PathCoordinate, Path>();
-    _tiles = new ArrayList<>();
+    List<Tile> tiles = new ArrayList<>(geometry.getLand().size()
+        + geometry.getSea().size());
     int currRoll = 0;
-    int currTile = 0;
-    int currDepth = DEPTH;
-    int x = DEPTH;
-    int y = 0;
-    int z = 0;
-    int i = 0;
-    // How it constructs the board
-    while (currDepth >= 0) {
-      currRoll = addTile(availTiles.get(currTile), new HexCoordinate(x, y, z),
-          intersections, paths, currRoll, currTile, rollNums);
-      currTile++;
-
-      for (i = 0; i < currDepth; i++) {
-        y++;
-        currRoll = addTile(availTiles.get(currTile),
-            new HexCoordinate(x, y, z), intersections, paths, currRoll,
-            currTile, rollNums);
-        currTile++;
+    for (HexCoordinate coord : geometry.getLand()) {
+      TileType type = availTiles.get(tiles.size());
+      List<Intersection> corners = corners(geometry, tiles.size(),
+          intersections);
+      if (type != DESERT) {
+        tiles.add(new Tile(rollNums.get(currRoll), coord, corners, type, false));
+        currRoll++;
+      } else {
+        tiles.add(new Tile(0, coord, corners, type, true));
       }
-
-      for (i = 0; i < currDepth; i++) {
-        x--;
-        currRoll = addTile(availTiles.get(currTile),
-            new HexCoordinate(x, y, z), intersections, paths, currRoll,
-            currTile, rollNums);
-        currTile++;
-      }
-
-      for (i = 0; i < currDepth; i++) {
-        z++;
-        currRoll = addTile(availTiles.get(currTile),
-            new HexCoordinate(x, y, z), intersections, paths, currRoll,
-            currTile, rollNums);
-        currTile++;
-      }
-
-      for (i = 0; i < currDepth; i++) {
-        y--;
-        currRoll = addTile(availTiles.get(currTile),
-            new HexCoordinate(x, y, z), intersections, paths, currRoll,
-            currTile, rollNums);
-        currTile++;
-      }
-
-      for (i = 0; i < currDepth; i++) {
-        x++;
-        currRoll = addTile(availTiles.get(currTile),
-            new HexCoordinate(x, y, z), intersections, paths, currRoll,
-            currTile, rollNums);
-        currTile++;
-      }
-
-      for (i = 1; i < currDepth; i++) {
-        z--;
-        currRoll = addTile(availTiles.get(currTile),
-            new HexCoordinate(x, y, z), intersections, paths, currRoll,
-            currTile, rollNums);
-        currTile++;
-      }
-      z--;
-      x--;
-      currDepth--;
     }
-
-    _intersections = intersections;
-    _paths = paths;
-    List<HexCoordinate> seaCoords = getSeaPermutations();
     // Adds sea tiles and ports
-    for (HexCoordinate hc : seaCoords) {
-      Tile seaTile = new Tile(hc, SEA, _intersections);
-      if (PORT_LOCATION.contains(hc)) {
-        seaTile.setPorts(new Port(
-            Settings.PORT_ORDER.get(PORT_LOCATION.indexOf(hc))));
+    for (int t = 0; t < geometry.getSea().size(); t++) {
+      Tile seaTile = new Tile(0, geometry.getSea().get(t), corners(geometry,
+          tiles.size(), intersections), SEA, false);
+      if (geometry.getPort(t) != null) {
+        seaTile.setPorts(geometry.getPort(t));
       }
-      _tiles.add(seaTile);
+      tiles.add(seaTile);
     }
+
+    _tiles = tiles;
+    _tileIndex = geometry.getTileIndex();
+    _intersections = new IndexedMap<>(geometry.getIntersectionIndex(),
+        intersections);
+    _paths = new IndexedMap<>(geometry.getPathIndex(), paths);
+    _topology = new Topology(geometry, tiles, intersections, paths);
   }
 
-  /**
-   * 
-   * @param tileType
-   * @param coord
-   * @param intersections
-   * @param paths
-   * @param currRoll
-   * @param unused_CurrTile
-   * @param rollNums
-   * @return
-   */
-  private int addTile(TileType tileType, HexCoordinate coord,
-      Map<IntersectionCoordinate, Intersection> intersections,
-      Map<PathCoordinate, Path> paths, Integer currRoll, Integer unused_CurrTile,
-      ImmutableList<Integer> rollNums) {
-    if (tileType != DESERT) {
-      _tiles.add(new Tile(rollNums.get(currRoll), coord, intersections, paths,
-          tileType));
-      return currRoll + 1;
-    } else {
-      _tiles.add(new Tile(0, coord, intersections, paths, tileType, true));
-      return currRoll;
+  // The intersections on a tile, from the geometry.
+  private static List<Intersection> corners(BoardGeometry geometry, int tile,
+      List<Intersection> intersections) {
+    int start = geometry.cornerStarts[tile];
+    int end = geometry.cornerStarts[tile + 1];
+    List<Intersection> corners = new ArrayList<>(end - start);
+    for (int c = start; c < end; c++) {
+      corners.add(intersections.get(geometry.corners[c]));
     }
+    return corners;
   }
 
+  /**
+   * Finds the robber.
+   *
+   * @return Coordinate of the tile the robber is on, or null if there isn't
+   *         one.
+   */
   public HexCoordinate findRobber() {
-    for (Tile t : _tiles) {
-      if (t.hasRobber()) {
-        return t.getCoordinate();
-      }
-    }
-    return null;
+    int t = _topology.robber();
+    return t != Topology.NONE ? _tiles.get(t).getCoordinate() : null;
+  }
+
+  /**
+   * Gets the tile at a coordinate.
+   *
+   * @param coord
+   *          Coordinate of the tile.
+   * @return The tile, or null if the board has no tile there.
+   */
+  public Tile getTile(HexCoordinate coord) {
+    Integer t = _tileIndex.get(coord);
+    return t != null ? _tiles.get(t) : null;
   }
 
   /**
@@ -354,38 +221,28 @@ public class Board {
    *         the robber was moved to.
    */
   public Set<Integer> moveRobber(HexCoordinate coord) {
-    Set<Integer> playersOnTile = Collections.emptySet();
-    for (Tile t : _tiles) {
-      if (t.hasRobber()) {
-        if (t.getCoordinate().equals(coord)) {
-          throw new IllegalArgumentException(
-              "The robber must be moved to a new location.");
-        }
-        t.hasRobber(false);
-      } else if (t.getCoordinate().equals(coord)) {
-        t.hasRobber(true);
-        playersOnTile = t.getPlayersOnTile();
-      }
+    Integer t = _tileIndex.get(coord);
+    if (t == null) {
+      throw new IllegalArgumentException("There is no tile at " + coord + ".");
+    }
+    if (t == _topology.robber()) {
+      throw new IllegalArgumentException(
+          "The robber must be moved to a new location.");
     }
-    return playersOnTile;
+    _topology.setRobber(t);
+    return _topology.playersOn(t);
   }
 
   /**
-   * Finds the longest path on the board.
+   * Finds the longest path on the board. Lengths are kept up to date as roads
+   * and settlements are built, so this is a lookup.
    * 
    * @param player
    *          Finds the longest path belonging to this player.
    * @return The length of the players longest road.
    */
   public int longestPath(Player player) {
-    int max = 0;
-    for (Path path : _paths.values()) {
-      int longestPath = path.getLongestPath(player);
-      if (longestPath > max) {
-        max = longestPath;
-      }
-    }
-    return max;
+    return _topology.longestRoad(player.getID());
   }
 
   // Standard Board
@@ -0,0 +1,319 @@
+package edu.brown.cs.board;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import edu.brown.cs.catan.Settings;
+
+/**
+ * The shape of the standard board, which is the same in every game: where the
+ * land and sea tiles are, the coordinates of every intersection and path, what
+ * is next to what, and which sea tiles have ports. It is worked out once and
+ * never changes, so every game's Board shares it and only holds what belongs
+ * to that game (tile types, roll numbers, the robber and who has built what).
+ *
+ * Intersections and paths are numbered in the order the tiles first reach
+ * them, and tiles are numbered land first, in the order the board lays them
+ * out, then sea. Adjacency is kept in flat int arrays, compressed row style,
+ * which each game's Topology reads directly.
+ */
+final class BoardGeometry {
+
+  private static final int DEPTH = 2;
+  private static final BoardGeometry STANDARD = new BoardGeometry();
+
+  private final List<HexCoordinate> _land;
+  private final List<HexCoordinate> _sea;
+  private final List<Port> _ports;
+  private final List<IntersectionCoordinate> _intersections;
+  private final List<PathCoordinate> _paths;
+  private final ImmutableMap<IntersectionCoordinate, Integer> _intersectionIndex;
+  private final ImmutableMap<PathCoordinate, Integer> _pathIndex;
+  private final ImmutableMap<HexCoordinate, Integer> _tileIndex;
+
+  final int[] pathEnds;
+  final int[] pathStarts;
+  final int[] adjacentPaths;
+  final int[] cornerStarts;
+  final int[] corners;
+  final int[] tileStarts;
+  final int[] adjacentTiles;
+
+  private BoardGeometry() {
+    _land = ImmutableList.copyOf(landCoordinates());
+    _sea = ImmutableList.copyOf(seaCoordinates());
+    List<HexCoordinate> portLocations = portLocations();
+    List<Port> ports = new ArrayList<>();
+    for (HexCoordinate hc : _sea) {
+      int port = portLocations.indexOf(hc);
+      ports.add(port < 0 ? null : new Port(Settings.PORT_ORDER.get(port)));
+    }
+    _ports = ports;
+    ImmutableMap.Builder<HexCoordinate, Integer> tileIndex = ImmutableMap
+        .builder();
+    for (int t = 0; t < _land.size(); t++) {
+      tileIndex.put(_land.get(t), t);
+    }
+    for (int t = 0; t < _sea.size(); t++) {
+      tileIndex.put(_sea.get(t), _land.size() + t);
+    }
+    _tileIndex = tileIndex.build();
+
+    Map<IntersectionCoordinate, Integer> intersections = new LinkedHashMap<>();
+    Map<PathCoordinate, Integer> paths = new LinkedHashMap<>();
+    List<Integer> ends = new ArrayList<>();
+    int[] sizes = new int[_land.size() + _sea.size()];
+    List<Integer> tileCorners = new ArrayList<>();
+    for (int t = 0; t < _land.size(); t++) {
+      IntersectionCoordinate[] coords = Tile.corners(_land.get(t));
+      for (int k = 0; k < coords.length; k++) {
+        coords[k] = coords[k].intern();
+        if (!intersections.containsKey(coords[k])) {
+          intersections.put(coords[k], intersections.size());
+        }
+        tileCorners.add(intersections.get(coords[k]));
+      }
+      sizes[t] = coords.length;
+      for (int k = 0; k < coords.length; k++) {
+        IntersectionCoordinate start = coords[k];
+        IntersectionCoordinate end = coords[(k + 1) % coords.length];
+        PathCoordinate path = new PathCoordinate(start, end);
+        if (!paths.containsKey(path)) {
+          paths.put(path, paths.size());
+          ends.add(intersections.get(start));
+          ends.add(intersections.get(end));
+        }
+      }
+    }
+    for (int t = 0; t < _sea.size(); t++) {
+      for (IntersectionCoordinate coord : Tile.seaCorners(_sea.get(t))) {
+        assert intersections.containsKey(coord);
+        tileCorners.add(intersections.get(coord));
+        sizes[_land.size() + t]++;
+      }
+    }
+    _intersectionIndex = ImmutableMap.copyOf(intersections);
+    _pathIndex = ImmutableMap.copyOf(paths);
+    _intersections = _intersectionIndex.keySet().asList();
+    _paths = _pathIndex.keySet().asList();
+    int n = _intersections.size();
+
+    pathEnds = toArray(ends);
+    int[] degrees = new int[n];
+    for (int end : pathEnds) {
+      degrees[end]++;
+    }
+    pathStarts = starts(degrees);
+    adjacentPaths = new int[pathStarts[n]];
+    int[] fillCounts = new int[n];
+    for (int p = 0; p < pathEnds.length; p++) {
+      int i = pathEnds[p];
+      adjacentPaths[pathStarts[i] + fillCounts[i]++] = p / 2;
+    }
+
+    cornerStarts = starts(sizes);
+    corners = toArray(tileCorners);
+    int[] tileCounts = new int[n];
+    for (int corner : corners) {
+      tileCounts[corner]++;
+    }
+    tileStarts = starts(tileCounts);
+    adjacentTiles = new int[tileStarts[n]];
+    fillCounts = new int[n];
+    for (int t = 0; t < sizes.length; t++) {
+      for (int c = cornerStarts[t]; c < cornerStarts[t + 1]; c++) {
+        int i = corners[c];
+        adjacentTiles[tileStarts[i] + fillCounts[i]++] = t;
+      }
+    }
+  }
+
+  /**
+   * @return The geometry of the standard board.
+   */
+  static BoardGeometry standard() {
+    return STANDARD;
+  }
+
+  // The land tiles, spiralling in from the edge.
+  private static List<HexCoordinate> landCoordinates() {
+    List<HexCoordinate> coords = new ArrayList<>();
+    int currDepth = DEPTH;
+    int x = DEPTH;
+    int y = 0;
+    int z = 0;
+    while (currDepth >= 0) {
+      coords.add(new HexCoordinate(x, y, z));
+      for (int i = 0; i < currDepth; i++) {
+        y++;
+        coords.add(new HexCoordinate(x, y, z));
+      }
+      for (int i = 0; i < currDepth; i++) {
+        x--;
+        coords.add(new HexCoordinate(x, y, z));
+      }
+      for (int i = 0; i < currDepth; i++) {
+        z++;
+        coords.add(new HexCoordinate(x, y, z));
+      }
+      for (int i = 0; i < currDepth; i++) {
+        y--;
+        coords.add(new HexCoordinate(x, y, z));
+      }
+      for (int i = 0; i < currDepth; i++) {
+        x++;
+        coords.add(new HexCoordinate(x, y, z));
+      }
+      for (int i = 1; i < currDepth; i++) {
+        z--;
+        coords.add(new HexCoordinate(x, y, z));
+      }
+      z--;
+      x--;
+      currDepth--;
+    }
+    return coords;
+  }
+
+  // The sea tiles, as permutations of the coordinates of one side of the ring.
+  private static List<HexCoordinate> seaCoordinates() {
+    List<HexCoordinate> coords = new ArrayList<HexCoordinate>();
+    int[][] sides = { { 0, 0, 3 }, { 0, 2, 3 }, { 0, 1, 3 }, { 0, 3, 3 } };
+    for (int[] digits : sides) {
+      coords.add(new HexCoordinate(digits[0], digits[1], digits[2]));
+      while (permute(digits)) {
+        coords.add(new HexCoordinate(digits[0], digits[1], digits[2]));
+      }
+    }
+    return coords;
+  }
+
+  /**
+   * Returns true if there are possible permutations of the array.
+   *
+   * @param coords
+   *          Array to permute
+   * @return Boolean stating if there are more permutations
+   */
+  private static boolean permute(int[] coords) {
+    int k = coords.length - 2;
+    while (coords[k] >= coords[k + 1]) {
+      k--;
+      if (k < 0) {
+        return false;
+      }
+    }
+    int l = coords.length - 1;
+    while (coords[k] >= coords[l]) {
+      l--;
+    }
+    swap(coords, k, l);
+    int length = coords.length - (k + 1);
+    for (int i = 0; i < length / 2; i++) {
+      swap(coords, k + 1 + i, coords.length - i - 1);
+    }
+    return true;
+  }
+
+  private static void swap(int[] coords, int idx1, int idx2) {
+    int tmp = coords[idx1];
+    coords[idx1] = coords[idx2];
+    coords[idx2] = tmp;
+  }
+
+  // The sea tiles with ports, in the order of Settings.PORT_ORDER.
+  private static List<HexCoordinate> portLocations() {
+    List<HexCoordinate> toRet = new ArrayList<HexCoordinate>();
+    toRet.add(new HexCoordinate(0, 0, 3));
+    toRet.add(new HexCoordinate(0, 2, 3));
+    toRet.add(new HexCoordinate(0, 3, 2));
+    toRet.add(new HexCoordinate(0, 3, 0));
+    toRet.add(new HexCoordinate(2, 3, 0));
+    toRet.add(new HexCoordinate(3, 2, 0));
+    toRet.add(new HexCoordinate(3, 0, 0));
+    toRet.add(new HexCoordinate(3, 0, 2));
+    toRet.add(new HexCoordinate(2, 0, 3));
+    return toRet;
+  }
+
+  // offsets into a flat array for rows of the given sizes, plus the total.
+  private static int[] starts(int[] sizes) {
+    int[] offsets = new int[sizes.length + 1];
+    for (int i = 0; i < sizes.length; i++) {
+      offsets[i + 1] = offsets[i] + sizes[i];
+    }
+    return offsets;
+  }
+
+  private static int[] toArray(List<Integer> list) {
+    int[] values = new int[list.size()];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = list.get(i);
+    }
+    return values;
+  }
+
+  /**
+   * @return Coordinates of the land tiles, in the order they are laid out.
+   */
+  List<HexCoordinate> getLand() {
+    return _land;
+  }
+
+  /**
+   * @return Coordinates of the sea tiles, numbered after the land tiles.
+   */
+  List<HexCoordinate> getSea() {
+    return _sea;
+  }
+
+  /**
+   * @param seaTile
+   *          Which sea tile, from 0.
+   * @return The port on the sea tile, or null if it has none.
+   */
+  Port getPort(int seaTile) {
+    return _ports.get(seaTile);
+  }
+
+  /**
+   * @return Coordinates of the intersections, by number.
+   */
+  List<IntersectionCoordinate> getIntersections() {
+    return _intersections;
+  }
+
+  /**
+   * @return Coordinates of the paths, by number.
+   */
+  List<PathCoordinate> getPaths() {
+    return _paths;
+  }
+
+  /**
+   * @return The number of each intersection, by coordinate.
+   */
+  ImmutableMap<IntersectionCoordinate, Integer> getIntersectionIndex() {
+    return _intersectionIndex;
+  }
+
+  /**
+   * @return The number of each tile, land then sea, by coordinate.
+   */
+  ImmutableMap<HexCoordinate, Integer> getTileIndex() {
+    return _tileIndex;
+  }
+
+  /**
+   * @return The number of each path, by coordinate.
+   */
+  ImmutableMap<PathCoordinate, Integer> getPathIndex() {
+    return _pathIndex;
+  }
+
+}
@@ -2,6 +2,7 @@ package edu.brown.cs.board;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 import edu.brown.cs.graph.Edge;
@@ -16,6 +17,8 @@ import edu.brown.cs.graph.Node;
 public class CatanNode implements Node<Path, Intersection> {
   private Intersection _data;
   private GraphCache _cache;
+  // the board never changes shape, so the edges are found once.
+  private List<Edge<Path, Intersection>> _edges;
 
   /**
    * Constructor for the class.
@@ -32,6 +35,9 @@ public class CatanNode implements Node<Path, Intersection> {
 
   @Override
   public List<Edge<Path, Intersection>> getEdges() {
+    if (_edges != null) {
+      return _edges;
+    }
     Collection<Path> paths = _data.getPaths();
     List<Edge<Path, Intersection>> edges = new ArrayList<Edge<Path, Intersection>>();
     if(paths != null) {
@@ -59,7 +65,8 @@ public class CatanNode implements Node<Path, Intersection> {
         }
       }
     }
-    return edges;
+    _edges = Collections.unmodifiableList(edges);
+    return _edges;
   }
 
   @Override
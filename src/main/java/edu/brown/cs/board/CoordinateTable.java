@@ -0,0 +1,93 @@
+package edu.brown.cs.board;
+
+/**
+ * Intern table for intersection coordinates, so that a coordinate read from a
+ * request can be found by the keys of its tiles without creating any objects.
+ * Every board has the same intersections, so the table fills up while the
+ * first board is built and is only read after that. Each insert copies the
+ * table and publishes the copy whole, so lookups never lock.
+ */
+final class CoordinateTable {
+
+  private static final int INITIAL_CAPACITY = 256;
+
+  // open addressing, at most half full.
+  private static volatile IntersectionCoordinate[] entries =
+      new IntersectionCoordinate[INITIAL_CAPACITY];
+  private static int size = 0;
+
+  private CoordinateTable() {
+  }
+
+  /**
+   * Finds the interned coordinate of the intersection of three tiles.
+   *
+   * @param k1
+   *          Key of one tile's coordinate.
+   * @param k2
+   *          Key of another tile's coordinate.
+   * @param k3
+   *          Key of the third tile's coordinate.
+   * @return The interned coordinate, or null if there isn't one.
+   */
+  static IntersectionCoordinate find(long k1, long k2, long k3) {
+    long low = Math.min(k1, Math.min(k2, k3));
+    long high = Math.max(k1, Math.max(k2, k3));
+    long middle = k1 + k2 + k3 - low - high;
+    IntersectionCoordinate[] coordinates = entries;
+    int mask = coordinates.length - 1;
+    for (int i = IntersectionCoordinate.hash(low, middle, high) & mask;; i =
+        (i + 1) & mask) {
+      IntersectionCoordinate c = coordinates[i];
+      if (c == null || c.hasKeys(low, middle, high)) {
+        return c;
+      }
+    }
+  }
+
+  /**
+   * Interns a coordinate.
+   *
+   * @param coord
+   *          The coordinate to intern.
+   * @return The interned coordinate equal to it, which is {@code coord} if
+   *         there wasn't one.
+   */
+  static synchronized IntersectionCoordinate intern(
+      IntersectionCoordinate coord) {
+    IntersectionCoordinate[] coordinates = entries;
+    int mask = coordinates.length - 1;
+    int i = coord.hashCode() & mask;
+    for (; coordinates[i] != null; i = (i + 1) & mask) {
+      if (coordinates[i].equals(coord)) {
+        return coordinates[i];
+      }
+    }
+    IntersectionCoordinate[] copies;
+    if (2 * (size + 1) > coordinates.length) {
+      copies = new IntersectionCoordinate[2 * coordinates.length];
+      for (IntersectionCoordinate c : coordinates) {
+        if (c != null) {
+          insert(copies, c);
+        }
+      }
+    } else {
+      copies = coordinates.clone();
+    }
+    insert(copies, coord);
+    size++;
+    entries = copies;
+    return coord;
+  }
+
+  private static void insert(IntersectionCoordinate[] coordinates,
+      IntersectionCoordinate coord) {
+    int mask = coordinates.length - 1;
+    int i = coord.hashCode() & mask;
+    while (coordinates[i] != null) {
+      i = (i + 1) & mask;
+    }
+    coordinates[i] = coord;
+  }
+
+}
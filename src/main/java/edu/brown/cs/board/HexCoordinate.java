@@ -3,16 +3,18 @@ package edu.brown.cs.board;
 import static java.lang.Math.sqrt;
 
 /**
- * Hexagonal Coordinate System representation of a point.
+ * Hexagonal Coordinate System representation of a point. Adding the same
+ * amount to all three values gives the same point, so each coordinate is keyed
+ * by (y - x, z - x), packed into a long, for equality and hashing.
  *
  * @author anselvahle
  *
  */
 public class HexCoordinate {
-  private static final double TOLERANCE = .001;
   private final int x;
   private final int y;
   private final int z;
+  private final transient long key; // not sent to clients.
 
   /**
    * Constructor for the class.
@@ -28,6 +30,37 @@ public class HexCoordinate {
     this.x = x;
     this.y = y;
     this.z = z;
+    this.key = key(x, y, z);
+  }
+
+  /**
+   * Gets the key of a point without creating a coordinate for it. Equal points
+   * have equal keys.
+   *
+   * @param x
+   *          Value of the x position.
+   * @param y
+   *          Value of the y position.
+   * @param z
+   *          Value of the z position.
+   * @return The packed canonical key of the point.
+   */
+  public static long key(int x, int y, int z) {
+    return ((long) (y - x) << 32) | ((z - x) & 0xFFFFFFFFL);
+  }
+
+  /**
+   * Gets the key of this point.
+   *
+   * @return The packed canonical key of this point.
+   */
+  public long key() {
+    return key;
+  }
+
+  // spreads both halves of a key over the hash.
+  static int hash(long key) {
+    return 31 * (int) (key >>> 32) + (int) key;
   }
 
   /**
@@ -68,14 +101,7 @@ public class HexCoordinate {
     if (!(obj instanceof HexCoordinate)) {
       return false;
     }
-    HexCoordinate other = (HexCoordinate) obj;
-    if (!(Math.abs(this.cartesianX() - other.cartesianX()) < TOLERANCE)) {
-      return false;
-    }
-    if (!(Math.abs(this.cartesianY() - other.cartesianY()) < TOLERANCE)) {
-      return false;
-    }
-    return true;
+    return key == ((HexCoordinate) obj).key;
   }
 
   /**
@@ -98,9 +124,7 @@ public class HexCoordinate {
 
   @Override
   public int hashCode() {
-    // double[] coords = { this.cartesianX(), this.cartesianY() };
-    // return Arrays.hashCode(coords);
-    return 1;
+    return hash(key);
   }
 
   @Override
@@ -0,0 +1,100 @@
+package edu.brown.cs.board;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * A read-only map whose keys are numbered by an index shared between maps, and
+ * whose values are a list in that order. Every board's intersections and paths
+ * are looked up by the same coordinates, so the boards share the index and
+ * each only keeps its own list.
+ *
+ * @param <K>
+ *          Type of the keys.
+ * @param <V>
+ *          Type of the values.
+ */
+final class IndexedMap<K, V> extends AbstractMap<K, V> {
+
+  private final ImmutableMap<K, Integer> _index;
+  private final List<V> _values;
+
+  /**
+   * Constructor for the class.
+   *
+   * @param index
+   *          The number of each key, from 0, in iteration order.
+   * @param values
+   *          The value of each key, by number.
+   */
+  IndexedMap(ImmutableMap<K, Integer> index, List<V> values) {
+    assert index.size() == values.size();
+    _index = index;
+    _values = values;
+  }
+
+  @Override
+  public V get(Object key) {
+    Integer i = _index.get(key);
+    return i == null ? null : _values.get(i);
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return _index.containsKey(key);
+  }
+
+  @Override
+  public int size() {
+    return _values.size();
+  }
+
+  @Override
+  public Set<K> keySet() {
+    return _index.keySet();
+  }
+
+  @Override
+  public Collection<V> values() {
+    return Collections.unmodifiableList(_values);
+  }
+
+  @Override
+  public Set<Map.Entry<K, V>> entrySet() {
+    return new AbstractSet<Map.Entry<K, V>>() {
+
+      @Override
+      public Iterator<Map.Entry<K, V>> iterator() {
+        Iterator<K> keys = _index.keySet().iterator();
+        return new Iterator<Map.Entry<K, V>>() {
+
+          private int _next = 0;
+
+          @Override
+          public boolean hasNext() {
+            return keys.hasNext();
+          }
+
+          @Override
+          public Map.Entry<K, V> next() {
+            return new SimpleImmutableEntry<>(keys.next(), _values.get(_next++));
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return _values.size();
+      }
+    };
+  }
+
+}
@@ -15,6 +15,9 @@ public class Intersection {
   private Building _building;
   private Port _port;
   private IntersectionCoordinate _position;
+  // set once the intersection is part of a board.
+  private Topology _topology;
+  private int _index;
 
   /**
    * Constructor for the class.
@@ -79,6 +82,7 @@ public class Intersection {
   public void placeSettlement(Player p) {
     if (_building == null) {
       _building = new Settlement(p);
+      written();
     }
   }
 
@@ -91,9 +95,29 @@ public class Intersection {
   public void placeCity(Player p) {
     if (canPlaceCity(p)) {
       _building = new City(p);
+      written();
     }
   }
 
+  private void written() {
+    if (_topology != null) {
+      _topology.setBuilding(_index, _building);
+    }
+  }
+
+  /**
+   * Makes this intersection a view of its entry in a board's topology.
+   *
+   * @param topology
+   *          The topology of the board.
+   * @param index
+   *          The number of this intersection in it.
+   */
+  void attach(Topology topology, int index) {
+    _topology = topology;
+    _index = index;
+  }
+
   // States whether or not there is a settlement on an intersection 1 road
   // length away.
   private boolean hasAdjacentSettlement() {
@@ -116,6 +140,10 @@ public class Intersection {
    *         intersection.
    */
   public boolean canPlaceSettlement(Referee r, int playerID) {
+    if (_topology != null) {
+      return _topology.canPlaceSettlement(_index, playerID,
+          r.getGameStatus() == GameStatus.PROGRESS);
+    }
     if (_building == null && !hasAdjacentSettlement()) {
       if (r.getGameStatus() != GameStatus.PROGRESS) {
         return true;
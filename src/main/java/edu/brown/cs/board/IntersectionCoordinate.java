@@ -1,15 +1,27 @@
 package edu.brown.cs.board;
 
+import com.google.gson.JsonObject;
+
 /**
- * System for specifiying the location of the intersections on the board.
+ * System for specifiying the location of the intersections on the board. The
+ * three tiles can be given in any order, so the keys of their coordinates are
+ * kept sorted for equality and hashing.
  *
  * @author anselvahle
  *
  */
 public class IntersectionCoordinate {
+  // stands in for the key of a missing coordinate.
+  private static final long NO_KEY = Long.MIN_VALUE;
+
   private final HexCoordinate coord1;
   private final HexCoordinate coord2;
   private final HexCoordinate coord3;
+  // derived, so not sent to clients.
+  private final transient long key1;
+  private final transient long key2;
+  private final transient long key3;
+  private final transient int hash;
 
   /**
    * Constructor for the class.
@@ -26,6 +38,89 @@ public class IntersectionCoordinate {
     this.coord1 = coord1;
     this.coord2 = coord2;
     this.coord3 = coord3;
+    long a = coord1 == null ? NO_KEY : coord1.key();
+    long b = coord2 == null ? NO_KEY : coord2.key();
+    long c = coord3 == null ? NO_KEY : coord3.key();
+    this.key1 = Math.min(a, Math.min(b, c));
+    this.key3 = Math.max(a, Math.max(b, c));
+    this.key2 = a + b + c - key1 - key3; // wraps back to the middle key.
+    this.hash = hash(key1, key2, key3);
+  }
+
+  /**
+   * Gets the coordinate of the intersection between three tiles, reusing the
+   * one on the board if there is one.
+   *
+   * @param x1
+   *          Value of the x position of the first tile.
+   * @param y1
+   *          Value of the y position of the first tile.
+   * @param z1
+   *          Value of the z position of the first tile.
+   * @param x2
+   *          Value of the x position of the second tile.
+   * @param y2
+   *          Value of the y position of the second tile.
+   * @param z2
+   *          Value of the z position of the second tile.
+   * @param x3
+   *          Value of the x position of the third tile.
+   * @param y3
+   *          Value of the y position of the third tile.
+   * @param z3
+   *          Value of the z position of the third tile.
+   * @return The board's coordinate for the intersection, or a new one.
+   */
+  public static IntersectionCoordinate of(int x1, int y1, int z1, int x2,
+      int y2, int z2, int x3, int y3, int z3) {
+    IntersectionCoordinate interned = CoordinateTable.find(
+        HexCoordinate.key(x1, y1, z1), HexCoordinate.key(x2, y2, z2),
+        HexCoordinate.key(x3, y3, z3));
+    if (interned != null) {
+      return interned;
+    }
+    return new IntersectionCoordinate(new HexCoordinate(x1, y1, z1),
+        new HexCoordinate(x2, y2, z2), new HexCoordinate(x3, y3, z3));
+  }
+
+  /**
+   * Gets the coordinate of an intersection sent by a client, as an object
+   * with the three tiles' coordinates in coord1, coord2 and coord3, each with
+   * x, y and z fields.
+   *
+   * @param object
+   *          The intersection, as sent.
+   * @return The board's coordinate for the intersection, or a new one.
+   */
+  public static IntersectionCoordinate of(JsonObject object) {
+    JsonObject coord1 = object.get("coord1").getAsJsonObject();
+    JsonObject coord2 = object.get("coord2").getAsJsonObject();
+    JsonObject coord3 = object.get("coord3").getAsJsonObject();
+    return of(coord1.get("x").getAsInt(), coord1.get("y").getAsInt(),
+        coord1.get("z").getAsInt(), coord2.get("x").getAsInt(),
+        coord2.get("y").getAsInt(), coord2.get("z").getAsInt(),
+        coord3.get("x").getAsInt(), coord3.get("y").getAsInt(),
+        coord3.get("z").getAsInt());
+  }
+
+  /**
+   * Gets the one shared coordinate equal to this one, making this one it if
+   * there isn't one yet.
+   *
+   * @return The interned coordinate.
+   */
+  public IntersectionCoordinate intern() {
+    return CoordinateTable.intern(this);
+  }
+
+  // whether this is the intersection of the tiles with the given sorted keys.
+  boolean hasKeys(long k1, long k2, long k3) {
+    return key1 == k1 && key2 == k2 && key3 == k3;
+  }
+
+  static int hash(long k1, long k2, long k3) {
+    return 31 * (31 * HexCoordinate.hash(k1) + HexCoordinate.hash(k2))
+        + HexCoordinate.hash(k3);
   }
 
   /**
@@ -57,51 +152,19 @@ public class IntersectionCoordinate {
 
   @Override
   public int hashCode() {
-    int result;
-    result = ((coord1 == null) ? 0 : coord1.hashCode());
-    result += ((coord2 == null) ? 0 : coord2.hashCode());
-    result += ((coord3 == null) ? 0 : coord3.hashCode());
-    return result;
+    return hash;
   }
 
   @Override
   public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
     if (!(obj instanceof IntersectionCoordinate)) {
       return false;
     }
     IntersectionCoordinate toComp = (IntersectionCoordinate) obj;
-    if (coord1.equals(toComp.getCoord1())
-        && coord2.equals(toComp.getCoord2())
-        && coord3.equals(toComp.getCoord3())) {
-      return true;
-    }
-    if (coord1.equals(toComp.getCoord1())
-        && coord2.equals(toComp.getCoord3())
-        && coord3.equals(toComp.getCoord2())) {
-      return true;
-    }
-    if (coord1.equals(toComp.getCoord2())
-        && coord2.equals(toComp.getCoord1())
-        && coord3.equals(toComp.getCoord3())) {
-      return true;
-    }
-    if (coord1.equals(toComp.getCoord3())
-        && coord2.equals(toComp.getCoord2())
-        && coord3.equals(toComp.getCoord1())) {
-      return true;
-    }
-    if (coord1.equals(toComp.getCoord3())
-        && coord2.equals(toComp.getCoord1())
-        && coord3.equals(toComp.getCoord2())) {
-      return true;
-    }
-    if (coord1.equals(toComp.getCoord2())
-        && coord2.equals(toComp.getCoord3())
-        && coord3.equals(toComp.getCoord1())) {
-      return true;
-    }
-
-    return false;
+    return hash == toComp.hash && toComp.hasKeys(key1, key2, key3);
   }
 
   @Override
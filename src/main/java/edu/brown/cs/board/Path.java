@@ -1,13 +1,11 @@
 package edu.brown.cs.board;
 
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import edu.brown.cs.catan.Player;
 import edu.brown.cs.catan.Setup;
+import edu.brown.cs.graph.Graphs;
 
 /**
  * Class paths between intersection.
@@ -19,6 +17,9 @@ public class Path {
   private Intersection _start;
   private Intersection _end;
   private Road _road;
+  // set once the path is part of a board.
+  private Topology _topology;
+  private int _index;
 
   /**
    * Constructor for the class.
@@ -47,7 +48,13 @@ public class Path {
 
   @Override
   public int hashCode() {
-    return 1;
+    if (_start == null || _end == null) {
+      return 0;
+    }
+    // either way round, as in equals.
+    int a = _start.hashCode();
+    int b = _end.hashCode();
+    return 31 * Math.min(a, b) + Math.max(a, b);
   }
 
   @Override
@@ -75,57 +82,27 @@ public class Path {
   }
 
   /**
-   * Finds the longest road associated with the input player.
+   * Finds the longest road associated with the input player that can be
+   * reached from this path, stopping at other players' buildings.
    *
    * @param player
    *          Player whose roads to evaluate.
    * @return Int that is the length of the longest road for this player.
    */
   public int getLongestPath(Player player) {
-    Collection<Path> visited = new ArrayList<>();
-    List<Path> queue = new ArrayList<>();
-    Map<Path, Integer> counts = new HashMap<>();
-    queue.add(this);
-    counts.put(this, 0);
-    while (!queue.isEmpty()) {
-      Path toVisit = queue.remove(0);
-      visited.add(toVisit);
-      int curr = counts.get(toVisit) + 1;
-      for (Path p : toVisit.getStart().getPaths()) {
-        if (p.getRoad() != null && p.getRoad().getPlayer().equals(player)) {
-          if (!visited.contains(p)) {
-            visited.add(p);
-            counts.put(p, curr);
-            queue.add(0, p);
-          } else {
-            if (curr - counts.get(p) == 5) {
-              counts.put(p, curr);
-            }
-          }
-        }
-      }
-      for (Path p : toVisit.getEnd().getPaths()) {
-        if (p.getRoad() != null && p.getRoad().getPlayer().equals(player)) {
-          if (!visited.contains(p)) {
-            visited.add(p);
-            counts.put(p, curr);
-            queue.add(0, p);
-          } else {
-            if (curr - counts.get(p) == 5) {
-              counts.put(p, curr);
-            }
-          }
-        }
-      }
-    }
-    int max = 0;
-    for (Path p : visited) {
-      int longest = counts.get(p);
-      if (longest > max) {
-        max = longest;
-      }
-    }
-    return max;
+    GraphCache cache = new GraphCache();
+    List<CatanNode> ends = new ArrayList<>();
+    ends.add(new CatanNode(_start, cache));
+    ends.add(new CatanNode(_end, cache));
+    cache.addNode(_start, ends.get(0));
+    cache.addNode(_end, ends.get(1));
+    return Graphs.longestTrail(ends, edge -> {
+      Road road = edge.getData().getRoad();
+      return road != null && road.getPlayer().equals(player);
+    }, node -> {
+      Building building = node.getData().getBuilding();
+      return building == null || building.getPlayer().equals(player);
+    });
   }
 
   /**
@@ -155,6 +132,9 @@ public class Path {
    *         this path.
    */
   public boolean canPlaceRoad(Player p) {
+    if (_topology != null) {
+      return _topology.canPlaceRoad(_index, p.getID());
+    }
     if (_road != null) {
       return false;
     }
@@ -190,9 +170,25 @@ public class Path {
   public void placeRoad(Player p) {
     if (canPlaceRoad(p)) {
       _road = new Road(p);
+      if (_topology != null) {
+        _topology.setRoad(_index, _road);
+      }
     }
   }
 
+  /**
+   * Makes this path a view of its entry in a board's topology.
+   *
+   * @param topology
+   *          The topology of the board.
+   * @param index
+   *          The number of this path in it.
+   */
+  void attach(Topology topology, int index) {
+    _topology = topology;
+    _index = index;
+  }
+
   /**
    * Gets the start of the path.
    *
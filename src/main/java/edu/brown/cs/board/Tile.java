@@ -3,7 +3,6 @@ package edu.brown.cs.board;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -104,6 +103,31 @@ public class Tile implements BoardTile {
     fillSeaTile(intersections);
   }
 
+  /**
+   * Constructor for the class, for a tile of a board whose intersections are
+   * already made.
+   *
+   * @param rollNum
+   *          Number that will trigger this tile.
+   * @param coordinate
+   *          Location of the tile on the board.
+   * @param intersections
+   *          The intersections on the tile.
+   * @param type
+   *          The type of resource associated with this tile.
+   * @param hasRobber
+   *          Boolean stating whether or not the robber is on this tile.
+   */
+  Tile(int rollNum, HexCoordinate coordinate,
+      List<Intersection> intersections, TileType type, boolean hasRobber) {
+    _type = type;
+    _rollNum = rollNum;
+    _coordinate = coordinate;
+    _hasRobber = hasRobber;
+    _intersections = intersections;
+    _portLocations = new ArrayList<IntersectionCoordinate>();
+  }
+
   /**
    * Determines where the intersections on Sea Tiles are and which two will be
    * the port locations.
@@ -112,43 +136,30 @@ public class Tile implements BoardTile {
    *          Map of the intersections on the board.
    */
   private void fillSeaTile(Map<IntersectionCoordinate, Intersection> intersections) {
+    for (IntersectionCoordinate coord : seaCorners(_coordinate)) {
+      assert intersections.containsKey(coord);
+      _intersections.add(intersections.get(coord));
+    }
+  }
+
+  /**
+   * The two intersections of a sea tile that touch the land, which are the two
+   * closest to the origin.
+   *
+   * @param coordinate
+   *          Location of the sea tile.
+   * @return The two intersections' coordinates.
+   */
+  static List<IntersectionCoordinate> seaCorners(HexCoordinate coordinate) {
     PriorityQueue<IntersectionCoordinate> closestIntersections =
         new PriorityQueue<>(6, new IntersectionComparator());
-
-    HexCoordinate upLeftTile = new HexCoordinate(_coordinate.getX(),
-        _coordinate.getY(), _coordinate.getZ() + 1);
-    HexCoordinate upRightTile = new HexCoordinate(_coordinate.getX(),
-        _coordinate.getY() + 1, _coordinate.getZ() + 1);
-    HexCoordinate rightTile = new HexCoordinate(_coordinate.getX(),
-        _coordinate.getY() + 1, _coordinate.getZ());
-    HexCoordinate lowerRightTile = new HexCoordinate(_coordinate.getX() + 1,
-        _coordinate.getY() + 1, _coordinate.getZ());
-    HexCoordinate lowerLeftTile = new HexCoordinate(_coordinate.getX() + 1,
-        _coordinate.getY(), _coordinate.getZ());
-    HexCoordinate leftTile = new HexCoordinate(_coordinate.getX() + 1,
-        _coordinate.getY(), _coordinate.getZ() + 1);
-
-    closestIntersections.add(new IntersectionCoordinate(_coordinate,
-        upLeftTile, upRightTile));
-    closestIntersections.add(new IntersectionCoordinate(_coordinate,
-        upRightTile, rightTile));
-    closestIntersections.add(new IntersectionCoordinate(_coordinate,
-        rightTile, lowerRightTile));
-    closestIntersections.add(new IntersectionCoordinate(_coordinate,
-        lowerRightTile, lowerLeftTile));
-    closestIntersections.add(new IntersectionCoordinate(_coordinate,
-        lowerLeftTile, leftTile));
-    closestIntersections.add(new IntersectionCoordinate(_coordinate,
-        leftTile, upLeftTile));
-
-    // Add the two intersections closest to the origin
-    IntersectionCoordinate toAdd = closestIntersections.poll();
-    assert intersections.containsKey(toAdd);
-    _intersections.add(intersections.get(toAdd));
-
-    toAdd = closestIntersections.poll();
-    assert intersections.containsKey(toAdd);
-    _intersections.add(intersections.get(toAdd));
+    for (IntersectionCoordinate coord : corners(coordinate)) {
+      closestIntersections.add(coord);
+    }
+    List<IntersectionCoordinate> toRet = new ArrayList<>();
+    toRet.add(closestIntersections.poll());
+    toRet.add(closestIntersections.poll());
+    return toRet;
   }
 
   /**
@@ -191,49 +202,55 @@ public class Tile implements BoardTile {
   }
 
   // Fills the edges of a tile using the relative positions of the nearby tiles.
-  // First by using a cache and then by creation.
+  // First by using a cache and then by creation. Boards get their shared,
+  // interned coordinates from BoardGeometry instead.
   private void fillEdges(
       Map<IntersectionCoordinate, Intersection> intersections, Map<PathCoordinate, Path> paths) {
-    HexCoordinate upLeftTile = new HexCoordinate(_coordinate.getX(),
-        _coordinate.getY(), _coordinate.getZ() + 1);
-    HexCoordinate upRightTile = new HexCoordinate(_coordinate.getX(),
-        _coordinate.getY() + 1, _coordinate.getZ() + 1);
-    HexCoordinate rightTile = new HexCoordinate(_coordinate.getX(),
-        _coordinate.getY() + 1, _coordinate.getZ());
-    HexCoordinate lowerRightTile = new HexCoordinate(_coordinate.getX() + 1,
-        _coordinate.getY() + 1, _coordinate.getZ());
-    HexCoordinate lowerLeftTile = new HexCoordinate(_coordinate.getX() + 1,
-        _coordinate.getY(), _coordinate.getZ());
-    HexCoordinate leftTile = new HexCoordinate(_coordinate.getX() + 1,
-        _coordinate.getY(), _coordinate.getZ() + 1);
-
-    IntersectionCoordinate top = new IntersectionCoordinate(_coordinate,
+    IntersectionCoordinate[] corners = corners(_coordinate);
+    for (int i = 0; i < corners.length; i++) {
+      fillIntersections(intersections, corners[i]);
+    }
+    for (int i = 0; i < corners.length; i++) {
+      fillPaths(intersections.get(corners[i]),
+          intersections.get(corners[(i + 1) % corners.length]), paths);
+    }
+  }
+
+  /**
+   * The intersections around a tile, clockwise from the top.
+   *
+   * @param coordinate
+   *          Location of the tile.
+   * @return The six intersections' coordinates.
+   */
+  static IntersectionCoordinate[] corners(HexCoordinate coordinate) {
+    HexCoordinate upLeftTile = new HexCoordinate(coordinate.getX(),
+        coordinate.getY(), coordinate.getZ() + 1);
+    HexCoordinate upRightTile = new HexCoordinate(coordinate.getX(),
+        coordinate.getY() + 1, coordinate.getZ() + 1);
+    HexCoordinate rightTile = new HexCoordinate(coordinate.getX(),
+        coordinate.getY() + 1, coordinate.getZ());
+    HexCoordinate lowerRightTile = new HexCoordinate(coordinate.getX() + 1,
+        coordinate.getY() + 1, coordinate.getZ());
+    HexCoordinate lowerLeftTile = new HexCoordinate(coordinate.getX() + 1,
+        coordinate.getY(), coordinate.getZ());
+    HexCoordinate leftTile = new HexCoordinate(coordinate.getX() + 1,
+        coordinate.getY(), coordinate.getZ() + 1);
+
+    IntersectionCoordinate top = new IntersectionCoordinate(coordinate,
         upLeftTile, upRightTile);
-    IntersectionCoordinate upRight = new IntersectionCoordinate(_coordinate,
+    IntersectionCoordinate upRight = new IntersectionCoordinate(coordinate,
         upRightTile, rightTile);
-    IntersectionCoordinate lowerRight = new IntersectionCoordinate(_coordinate,
+    IntersectionCoordinate lowerRight = new IntersectionCoordinate(coordinate,
         rightTile, lowerRightTile);
-    IntersectionCoordinate bottom = new IntersectionCoordinate(_coordinate,
+    IntersectionCoordinate bottom = new IntersectionCoordinate(coordinate,
         lowerRightTile, lowerLeftTile);
-    IntersectionCoordinate lowerLeft = new IntersectionCoordinate(_coordinate,
+    IntersectionCoordinate lowerLeft = new IntersectionCoordinate(coordinate,
         lowerLeftTile, leftTile);
-    IntersectionCoordinate upLeft = new IntersectionCoordinate(_coordinate,
+    IntersectionCoordinate upLeft = new IntersectionCoordinate(coordinate,
         leftTile, upLeftTile);
-
-    fillIntersections(intersections, top);
-    fillIntersections(intersections, upRight);
-    fillIntersections(intersections, lowerRight);
-    fillIntersections(intersections, bottom);
-    fillIntersections(intersections, lowerLeft);
-    fillIntersections(intersections, upLeft);
-
-    fillPaths(intersections.get(top), intersections.get(upRight), paths);
-    fillPaths(intersections.get(upRight), intersections.get(lowerRight), paths);
-    fillPaths(intersections.get(lowerRight), intersections.get(bottom), paths);
-    fillPaths(intersections.get(bottom), intersections.get(lowerLeft), paths);
-    fillPaths(intersections.get(lowerLeft), intersections.get(upLeft), paths);
-    fillPaths(intersections.get(upLeft), intersections.get(top), paths);
-
+    return new IntersectionCoordinate[] { top, upRight, lowerRight, bottom,
+        lowerLeft, upLeft };
   }
 
   // Fills the intersections of the tile, first by using a cache and then by
@@ -264,38 +281,6 @@ public class Tile implements BoardTile {
     return _type;
   }
 
-  /**
-   * Tells the intersections when to collect resources.
-   *
-   * @return A map of the player id to a map of resources that they collected
-   *         and how many of them.
-   */
-  public Map<Integer, Map<Resource, Integer>> notifyIntersections() {
-    Map<Integer, Map<Resource, Integer>> playerResourceCount = new HashMap<Integer, Map<Resource, Integer>>();
-    assert (_type.getType() != null);
-    for (Intersection i : _intersections) {
-      Map<Integer, Map<Resource, Integer>> fromInter = i.notifyBuilding(_type
-          .getType());
-      for (int playerID : fromInter.keySet()) {
-        if (!playerResourceCount.containsKey(playerID)) {
-          playerResourceCount.put(playerID, new HashMap<Resource, Integer>());
-        }
-        Map<Resource, Integer> resourceCount = fromInter.get(playerID);
-        Map<Resource, Integer> playerCount = playerResourceCount.get(playerID);
-        for(Resource res : resourceCount.keySet()) {
-          if (playerCount.containsKey(res)) {
-            playerCount.replace(res,
-                playerCount.get(res) + resourceCount.get(res));
-          } else {
-            playerCount.put(res, resourceCount.get(res));
-          }
-        }
-      }
-    }
-
-    return playerResourceCount;
-  }
-
   /**
    * Sets the port for this tile.
    *
@@ -368,7 +353,7 @@ public class Tile implements BoardTile {
    * @param _hasRobber
    *          boolean stating whether or not the robber is on this tile.
    */
-  public void hasRobber(boolean _hasRobber) {
+  void hasRobber(boolean _hasRobber) {
     this._hasRobber = _hasRobber;
   }
 
@@ -0,0 +1,628 @@
+package edu.brown.cs.board;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableSet;
+
+import edu.brown.cs.catan.Resource;
+import edu.brown.cs.graph.Graphs;
+
+/**
+ * The shape of a board as arrays. Intersections, paths and tiles are numbered
+ * from 0 as in the board's geometry, and what is next to what is kept in flat
+ * int arrays, compressed row style: the paths of intersection i are
+ * {@code adjacentPaths[pathStarts[i]]} up to
+ * {@code adjacentPaths[pathStarts[i + 1] - 1]}, and so on. Who owns each
+ * building and road is kept alongside, along with where each player may build
+ * next, so the rule checks that run for every intersection and path in every
+ * player's game state are bit tests instead of walks of object graphs. The
+ * intersections and paths of a board write through to it when something is
+ * built on them.
+ */
+public final class Topology {
+
+  /**
+   * Owner of nothing.
+   */
+  public static final int NONE = -1;
+  static final byte EMPTY = 0;
+  static final byte SETTLEMENT = 1;
+  static final byte CITY = 2;
+
+  // production entries are this many ints: the tile, the intersection, the
+  // player and how many they collect.
+  private static final int PRODUCTION_FIELDS = 4;
+  private static final int TILE = 0;
+  private static final int INTERSECTION = 1;
+  private static final int PLAYER = 2;
+  private static final int AMOUNT = 3;
+  private static final int MAX_ROLL = 12;
+
+  /**
+   * Receives what a player collects from one building on a roll.
+   */
+  public interface Production {
+
+    /**
+     * @param playerID
+     *          ID of the player who collects.
+     * @param resource
+     *          What they collect.
+     * @param amount
+     *          How many they collect.
+     */
+    void collect(int playerID, Resource resource, int amount);
+
+  }
+
+  private final List<Intersection> _intersections;
+  private final List<Path> _paths;
+  private final List<Tile> _tiles;
+
+  // shared by every board, from its geometry.
+  private final int[] _pathStarts;
+  private final int[] _adjacentPaths;
+  private final int[] _pathEnds;
+  private final int[] _cornerStarts;
+  private final int[] _corners;
+  private final int[] _tileStarts;
+  private final int[] _adjacentTiles;
+
+  private final int[] _owners;
+  private final byte[] _buildings;
+  private final int[] _roadOwners;
+  // each player's longest road, kept up to date as things are built.
+  private final Map<Integer, Integer> _roadLengths;
+  private int _roadVersion;
+  // what each roll produces, by roll: PRODUCTION_FIELDS ints per building next
+  // to a tile with that number, kept up to date as things are built.
+  private final int[] _tileRolls;
+  private final Resource[] _tileResources;
+  private final int[][] _productionTables;
+  private final int[] _productionSizes;
+  private int _robber;
+  // the kinds of port each player has a building on.
+  private final Map<Integer, Set<Resource>> _ports;
+  private int _portVersion;
+  // where the rules allow building, kept up to date as things are built: the
+  // intersections with no building on or next to them, and by player, those of
+  // them the player has a road to and the paths the player can build on.
+  private final BitSet _freeSpots;
+  private final Map<Integer, BitSet> _settlementSpots;
+  private final Map<Integer, BitSet> _roadSpots;
+
+  /**
+   * Attaches the intersections and paths of a board to a new topology.
+   *
+   * @param geometry
+   *          The shape of the board, which numbers its parts.
+   * @param tiles
+   *          Tiles on the board, numbered as in the geometry.
+   * @param intersections
+   *          Intersections on the board, numbered as in the geometry.
+   * @param paths
+   *          Paths between the intersections, numbered as in the geometry.
+   */
+  Topology(BoardGeometry geometry, List<Tile> tiles,
+      List<Intersection> intersections, List<Path> paths) {
+    _intersections = Collections.unmodifiableList(intersections);
+    _paths = Collections.unmodifiableList(paths);
+    _tiles = Collections.unmodifiableList(tiles);
+    _pathStarts = geometry.pathStarts;
+    _adjacentPaths = geometry.adjacentPaths;
+    _pathEnds = geometry.pathEnds;
+    _cornerStarts = geometry.cornerStarts;
+    _corners = geometry.corners;
+    _tileStarts = geometry.tileStarts;
+    _adjacentTiles = geometry.adjacentTiles;
+
+    _owners = new int[_intersections.size()];
+    _buildings = new byte[_intersections.size()];
+    _roadOwners = new int[_paths.size()];
+    Arrays.fill(_owners, NONE);
+    Arrays.fill(_roadOwners, NONE);
+    _roadLengths = new HashMap<>();
+    _roadVersion = 0;
+    _ports = new HashMap<>();
+    _portVersion = 0;
+    _freeSpots = new BitSet(_intersections.size());
+    _freeSpots.set(0, _intersections.size());
+    _settlementSpots = new HashMap<>();
+    _roadSpots = new HashMap<>();
+    _tileRolls = new int[_tiles.size()];
+    _tileResources = new Resource[_tiles.size()];
+    _robber = NONE;
+    for (int t = 0; t < _tiles.size(); t++) {
+      Tile tile = _tiles.get(t);
+      Resource resource = tile.getType().getType();
+      _tileRolls[t] = resource != null ? tile.getRollNumber() : 0;
+      _tileResources[t] = resource;
+      if (tile.hasRobber()) {
+        _robber = t;
+      }
+    }
+    _productionTables = new int[MAX_ROLL + 1][0];
+    _productionSizes = new int[MAX_ROLL + 1];
+    for (int i = 0; i < _intersections.size(); i++) {
+      Intersection intersection = _intersections.get(i);
+      setBuilding(i, intersection.getBuilding());
+      intersection.attach(this, i);
+    }
+    for (int p = 0; p < _paths.size(); p++) {
+      Path path = _paths.get(p);
+      setRoad(p, path.getRoad());
+      path.attach(this, p);
+    }
+  }
+
+  /**
+   * @return The intersections, by number.
+   */
+  public List<Intersection> getIntersections() {
+    return _intersections;
+  }
+
+  /**
+   * @return The paths, by number.
+   */
+  public List<Path> getPaths() {
+    return _paths;
+  }
+
+  /**
+   * @return The tiles, by number.
+   */
+  public List<Tile> getTiles() {
+    return _tiles;
+  }
+
+  /**
+   * @param i
+   *          Number of an intersection.
+   * @return Number of paths that meet at the intersection.
+   */
+  public int degree(int i) {
+    return _pathStarts[i + 1] - _pathStarts[i];
+  }
+
+  /**
+   * @param i
+   *          Number of an intersection.
+   * @param k
+   *          Which of its paths, from 0 to its degree.
+   * @return Number of the path.
+   */
+  public int pathAt(int i, int k) {
+    return _adjacentPaths[_pathStarts[i] + k];
+  }
+
+  /**
+   * @param p
+   *          Number of a path.
+   * @param i
+   *          Number of one of its ends.
+   * @return Number of its other end.
+   */
+  public int otherEnd(int p, int i) {
+    return _pathEnds[2 * p] == i ? _pathEnds[2 * p + 1] : _pathEnds[2 * p];
+  }
+
+  /**
+   * @param p
+   *          Number of a path.
+   * @return Number of the intersection it starts at.
+   */
+  public int start(int p) {
+    return _pathEnds[2 * p];
+  }
+
+  /**
+   * @param p
+   *          Number of a path.
+   * @return Number of the intersection it ends at.
+   */
+  public int end(int p) {
+    return _pathEnds[2 * p + 1];
+  }
+
+  /**
+   * @param t
+   *          Number of a tile.
+   * @return Number of intersections on the tile.
+   */
+  public int cornerCount(int t) {
+    return _cornerStarts[t + 1] - _cornerStarts[t];
+  }
+
+  /**
+   * @param t
+   *          Number of a tile.
+   * @param k
+   *          Which of its intersections, from 0 to its corner count.
+   * @return Number of the intersection.
+   */
+  public int cornerAt(int t, int k) {
+    return _corners[_cornerStarts[t] + k];
+  }
+
+  /**
+   * @param i
+   *          Number of an intersection.
+   * @return Number of tiles the intersection is on.
+   */
+  public int tileCount(int i) {
+    return _tileStarts[i + 1] - _tileStarts[i];
+  }
+
+  /**
+   * @param i
+   *          Number of an intersection.
+   * @param k
+   *          Which of its tiles, from 0 to its tile count.
+   * @return Number of the tile.
+   */
+  public int tileAt(int i, int k) {
+    return _adjacentTiles[_tileStarts[i] + k];
+  }
+
+  /**
+   * @param i
+   *          Number of an intersection.
+   * @return ID of the player with a building there, or NONE.
+   */
+  public int owner(int i) {
+    return _owners[i];
+  }
+
+  /**
+   * @param i
+   *          Number of an intersection.
+   * @return Whether there is a city there.
+   */
+  public boolean hasCity(int i) {
+    return _buildings[i] == CITY;
+  }
+
+  /**
+   * @param p
+   *          Number of a path.
+   * @return ID of the player with a road there, or NONE.
+   */
+  public int roadOwner(int p) {
+    return _roadOwners[p];
+  }
+
+  /**
+   * Same as {@link Intersection#canPlaceSettlement}.
+   *
+   * @param i
+   *          Number of the intersection.
+   * @param playerID
+   *          Player who wants to build.
+   * @param needsRoad
+   *          Whether the player needs a road to the intersection, as they do
+   *          once the game is in progress.
+   * @return Whether the player can build a settlement there.
+   */
+  public boolean canPlaceSettlement(int i, int playerID, boolean needsRoad) {
+    if (!needsRoad) {
+      return _freeSpots.get(i);
+    }
+    BitSet spots = _settlementSpots.get(playerID);
+    return spots != null && spots.get(i);
+  }
+
+  /**
+   * Same as {@link Path#canPlaceRoad}.
+   *
+   * @param p
+   *          Number of the path.
+   * @param playerID
+   *          Player who wants to build.
+   * @return Whether the player can build a road there.
+   */
+  public boolean canPlaceRoad(int p, int playerID) {
+    BitSet spots = _roadSpots.get(playerID);
+    return spots != null && spots.get(p);
+  }
+
+  /**
+   * @param playerID
+   *          Player who wants to build.
+   * @return Whether the player can build a road anywhere.
+   */
+  public boolean canPlaceAnyRoad(int playerID) {
+    BitSet spots = _roadSpots.get(playerID);
+    return spots != null && !spots.isEmpty();
+  }
+
+  // works out whether intersection i is free, and whether each player can
+  // build a settlement on it.
+  private void updateSettlementSpots(int i) {
+    boolean free = _buildings[i] == EMPTY;
+    for (int k = _pathStarts[i]; k < _pathStarts[i + 1] && free; k++) {
+      free = _buildings[otherEnd(_adjacentPaths[k], i)] == EMPTY;
+    }
+    _freeSpots.set(i, free);
+    for (Map.Entry<Integer, BitSet> spots : _settlementSpots.entrySet()) {
+      boolean connected = false;
+      for (int k = _pathStarts[i]; k < _pathStarts[i + 1] && free; k++) {
+        connected |= _roadOwners[_adjacentPaths[k]] == spots.getKey();
+      }
+      spots.getValue().set(i, free && connected);
+    }
+  }
+
+  // works out whether each player can build a road on path p.
+  private void updateRoadSpots(int p) {
+    for (Map.Entry<Integer, BitSet> spots : _roadSpots.entrySet()) {
+      int playerID = spots.getKey();
+      spots.getValue().set(p, _roadOwners[p] == NONE
+          && (reaches(_pathEnds[2 * p], playerID) || reaches(
+              _pathEnds[2 * p + 1], playerID)));
+    }
+  }
+
+  // works out the spots that depend on what is built at or next to
+  // intersection i: i itself and the paths that end there.
+  private void updateSpotsAt(int i) {
+    updateSettlementSpots(i);
+    for (int k = _pathStarts[i]; k < _pathStarts[i + 1]; k++) {
+      updateRoadSpots(_adjacentPaths[k]);
+    }
+  }
+
+  // starts keeping where a player can build, the first time they build.
+  private void addSpots(int playerID) {
+    if (playerID == NONE || _roadSpots.containsKey(playerID)) {
+      return;
+    }
+    _settlementSpots.put(playerID, new BitSet(_intersections.size()));
+    _roadSpots.put(playerID, new BitSet(_paths.size()));
+    for (int i = 0; i < _intersections.size(); i++) {
+      updateSettlementSpots(i);
+    }
+    for (int p = 0; p < _paths.size(); p++) {
+      updateRoadSpots(p);
+    }
+  }
+
+  // whether a player's road can be extended from an intersection: they have a
+  // building there, or the intersection is free and one of their roads ends
+  // there.
+  private boolean reaches(int i, int playerID) {
+    if (_buildings[i] != EMPTY) {
+      return _owners[i] == playerID;
+    }
+    for (int k = _pathStarts[i]; k < _pathStarts[i + 1]; k++) {
+      if (_roadOwners[_adjacentPaths[k]] == playerID) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @param playerID
+   *          ID of a player.
+   * @return The length of the player's longest road.
+   */
+  public int longestRoad(int playerID) {
+    Integer length = _roadLengths.get(playerID);
+    return length != null ? length : 0;
+  }
+
+  /**
+   * @return A number that changes whenever someone's longest road does.
+   */
+  public int getRoadVersion() {
+    return _roadVersion;
+  }
+
+  /**
+   * @param playerID
+   *          ID of a player.
+   * @return The kinds of port the player has a building on.
+   */
+  public Set<Resource> ports(int playerID) {
+    Set<Resource> ports = _ports.get(playerID);
+    return ports != null ? Collections.unmodifiableSet(ports) : Collections
+        .emptySet();
+  }
+
+  /**
+   * @return A number that changes whenever someone's ports do.
+   */
+  public int getPortVersion() {
+    return _portVersion;
+  }
+
+  void setBuilding(int i, Building building) {
+    int before = _owners[i];
+    if (building == null) {
+      _buildings[i] = EMPTY;
+      _owners[i] = NONE;
+    } else {
+      _buildings[i] = building instanceof City ? CITY : SETTLEMENT;
+      _owners[i] = building.getPlayer() != null ? building.getPlayer().getID()
+          : NONE;
+    }
+    int amount = _buildings[i] == CITY ? 2 : 1;
+    for (int k = _tileStarts[i]; k < _tileStarts[i + 1]; k++) {
+      int t = _adjacentTiles[k];
+      if (_tileRolls[t] > 0 && _tileRolls[t] <= MAX_ROLL) {
+        setProduction(_tileRolls[t], t, i, _owners[i], amount);
+      }
+    }
+    addSpots(_owners[i]);
+    updateSpotsAt(i);
+    for (int k = _pathStarts[i]; k < _pathStarts[i + 1]; k++) {
+      updateSettlementSpots(otherEnd(_adjacentPaths[k], i));
+    }
+    if (_owners[i] != before) {
+      // a building breaks the roads of everyone else that run through it.
+      for (int k = _pathStarts[i]; k < _pathStarts[i + 1]; k++) {
+        int owner = _roadOwners[_adjacentPaths[k]];
+        if (owner != NONE && owner != _owners[i]) {
+          updateRoadLength(owner);
+        }
+      }
+      Port port = _intersections.get(i).getPort();
+      if (port != null) {
+        if (before != NONE) {
+          updatePorts(before);
+        }
+        if (_owners[i] != NONE) {
+          _ports.computeIfAbsent(_owners[i],
+              id -> EnumSet.noneOf(Resource.class)).add(port.getResource());
+        }
+        _portVersion++;
+      }
+    }
+  }
+
+  // works out a player's ports again, after they lose a building on one.
+  private void updatePorts(int playerID) {
+    Set<Resource> ports = EnumSet.noneOf(Resource.class);
+    for (int i = 0; i < _owners.length; i++) {
+      Port port = _intersections.get(i).getPort();
+      if (_owners[i] == playerID && port != null) {
+        ports.add(port.getResource());
+      }
+    }
+    _ports.put(playerID, ports);
+  }
+
+  /**
+   * Tells everyone who collects on a roll what they collect, unless the robber
+   * is on the tile they would collect from.
+   *
+   * @param roll
+   *          The number rolled.
+   * @param production
+   *          Receives each building's collection.
+   */
+  public void produce(int roll, Production production) {
+    if (roll < 0 || roll > MAX_ROLL) {
+      return;
+    }
+    int[] entries = _productionTables[roll];
+    for (int e = 0; e < _productionSizes[roll]; e += PRODUCTION_FIELDS) {
+      if (entries[e + TILE] != _robber) {
+        production.collect(entries[e + PLAYER], _tileResources[entries[e
+            + TILE]], entries[e + AMOUNT]);
+      }
+    }
+  }
+
+  /**
+   * @param t
+   *          Number of a tile.
+   * @return IDs of the players with a building on the tile.
+   */
+  public Set<Integer> playersOn(int t) {
+    ImmutableSet.Builder<Integer> players = ImmutableSet.builder();
+    for (int c = _cornerStarts[t]; c < _cornerStarts[t + 1]; c++) {
+      if (_owners[_corners[c]] != NONE) {
+        players.add(_owners[_corners[c]]);
+      }
+    }
+    return players.build();
+  }
+
+  // the number of the tile the robber is on, or NONE.
+  int robber() {
+    return _robber;
+  }
+
+  // moves the robber, along with the flag its tiles show clients.
+  void setRobber(int t) {
+    if (_robber != NONE) {
+      _tiles.get(_robber).hasRobber(false);
+    }
+    _tiles.get(t).hasRobber(true);
+    _robber = t;
+  }
+
+  // adds, changes or removes the entry for a building next to a tile.
+  private void setProduction(int roll, int t, int i, int playerID, int amount) {
+    int[] entries = _productionTables[roll];
+    int size = _productionSizes[roll];
+    for (int e = 0; e < size; e += PRODUCTION_FIELDS) {
+      if (entries[e + TILE] == t && entries[e + INTERSECTION] == i) {
+        if (playerID == NONE) {
+          size -= PRODUCTION_FIELDS;
+          System.arraycopy(entries, size, entries, e, PRODUCTION_FIELDS);
+          _productionSizes[roll] = size;
+        } else {
+          entries[e + PLAYER] = playerID;
+          entries[e + AMOUNT] = amount;
+        }
+        return;
+      }
+    }
+    if (playerID == NONE) {
+      return;
+    }
+    if (size == entries.length) {
+      entries = Arrays.copyOf(entries, Math.max(2 * size,
+          4 * PRODUCTION_FIELDS));
+      _productionTables[roll] = entries;
+    }
+    entries[size + TILE] = t;
+    entries[size + INTERSECTION] = i;
+    entries[size + PLAYER] = playerID;
+    entries[size + AMOUNT] = amount;
+    _productionSizes[roll] = size + PRODUCTION_FIELDS;
+  }
+
+  void setRoad(int p, Road road) {
+    _roadOwners[p] = road != null && road.getPlayer() != null ? road
+        .getPlayer().getID() : NONE;
+    addSpots(_roadOwners[p]);
+    updateSpotsAt(_pathEnds[2 * p]);
+    updateSpotsAt(_pathEnds[2 * p + 1]);
+    if (_roadOwners[p] != NONE) {
+      updateRoadLength(_roadOwners[p]);
+    }
+  }
+
+  private void updateRoadLength(int playerID) {
+    int length = longestTrail(playerID);
+    if (length != longestRoad(playerID)) {
+      _roadLengths.put(playerID, length);
+      _roadVersion++;
+    }
+  }
+
+  // the most roads of a player that can be walked in a row without using one
+  // twice or passing through someone else's building.
+  private int longestTrail(int playerID) {
+    int roads = 0;
+    for (int owner : _roadOwners) {
+      if (owner == playerID) {
+        roads++;
+      }
+    }
+    int[] roadEnds = new int[2 * roads];
+    for (int p = 0, r = 0; p < _roadOwners.length; p++) {
+      if (_roadOwners[p] == playerID) {
+        roadEnds[r++] = _pathEnds[2 * p];
+        roadEnds[r++] = _pathEnds[2 * p + 1];
+      }
+    }
+    boolean[] passableNodes = new boolean[_owners.length];
+    for (int i = 0; i < _owners.length; i++) {
+      passableNodes[i] = _owners[i] == NONE || _owners[i] == playerID;
+    }
+    return Graphs.longestTrail(_owners.length, roadEnds, passableNodes);
+  }
+
+}
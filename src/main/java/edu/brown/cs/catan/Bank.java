@@ -76,4 +76,12 @@ public interface Bank {
    */
   double getWildCardRate(Resource res);
 
+  /**
+   * Returns a number that changes whenever the bank's rates might have, so
+   * that rates worked out from them can be kept until it does.
+   *
+   * @return The version of the bank's rates.
+   */
+  int getRatesVersion();
+
 }
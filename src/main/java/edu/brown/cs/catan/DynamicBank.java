@@ -1,8 +1,5 @@
 package edu.brown.cs.catan;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * An implementation of Bank that offers Dyanmic rates based on Resource supply.
  * Uses a logit function as to represent the possible distribution of rates.
@@ -12,9 +9,17 @@ import java.util.Map;
  *
  *
  */
+@SuppressWarnings("EnumOrdinal")
 public class DynamicBank implements Bank {
 
-  private Map<Resource, Double> _supply;
+  private static final Resource[] RESOURCES = Resource.values();
+  // by Resource.ordinal(), like the rates, since a rate is looked up for every
+  // resource each time a player's trade options are sent.
+  private final double[] _supplies;
+  private int _ratesVersion = 0;
+  // the rates for the current supply, by Resource.ordinal(), or null if the
+  // supply has changed since they were worked out. Never changed once set.
+  private Rates _rates;
   private static final double MIN_RATE = 2.0;
   private static final double MAX_RATE = 6.0;
   private static final double EXPECTATION = 3.0; // The expected number of a
@@ -28,89 +33,105 @@ public class DynamicBank implements Bank {
    * Creates a Dynamic Bank.
    */
   public DynamicBank() {
-    _supply = new HashMap<>();
-    for (Resource resource : Resource.values()) {
-      _supply.put(resource, 0.0);
-    }
+    _supplies = new double[RESOURCES.length];
+    _rates = null;
   }
 
   @Override
   public void getResource(Resource resource) {
-    double newVal = _supply.get(resource) + 1.0;
-    _supply.put(resource, newVal);
+    changeSupply(resource, 1.0);
   }
 
   @Override
   public void discardResource(Resource resource) {
-    double newVal = _supply.get(resource) - 1.0;
-    // assert newVal >= 0;
-    _supply.put(resource, newVal);
+    changeSupply(resource, -1.0);
   }
 
   @Override
   public void getResource(Resource resource, double count) {
-    double newVal = _supply.get(resource) + count;
-    _supply.put(resource, newVal);
+    changeSupply(resource, count);
   }
 
   @Override
   public void discardResource(Resource resource, double count) {
-    double newVal = _supply.get(resource) - count;
-    // assert newVal >= 0;
-    _supply.put(resource, newVal);
+    changeSupply(resource, -count);
+  }
+
+  private void changeSupply(Resource resource, double count) {
+    _supplies[resource.ordinal()] += count;
+    _rates = null;
+    _ratesVersion++;
   }
 
   @Override
   public double getBankRate(Resource res) {
-    double max = 0.0;
-    double min = Double.MAX_VALUE;
-    for (Resource resource : Resource.values()) {
-      if (getScoreForResource(resource) > max) {
-        max = getScoreForResource(resource);
-      }
-      if (getScoreForResource(resource) < min) {
-        min = getScoreForResource(resource);
-      }
-    }
-    return Math
-        .round(getRateFromProbit((getScoreForResource(res) - (max / 2.0))) * 10.0) / 10.0;
+    return getRates()._bankRates[res.ordinal()];
   }
 
   @Override
   public double getPortRate(Resource res) {
-    return Math.round(0.5 * getBankRate(res) * 10.0) / 10.0;
+    return getRates()._portRates[res.ordinal()];
   }
 
   @Override
   public double getWildCardRate(Resource res) {
-    return Math.round(0.75 * getBankRate(res) * 10.0) / 10.0;
-  }
-
-  private double getRateFromProbit(double x) {
-    return ((MAX_RATE - MIN_RATE) / (1 + Math.exp(-x))) + MIN_RATE;
+    return getRates()._wildCardRates[res.ordinal()];
   }
 
-  private double getScoreForResource(Resource res) {
-    return getResourceRatio(res) * getExpectationRatio(res);
+  @Override
+  public int getRatesVersion() {
+    return _ratesVersion;
   }
 
-  private double getResourceRatio(Resource res) {
-    double count = 0.0;
-    for (double supply : _supply.values()) {
-      count += supply;
-    }
-    if (count != 0.0) {
-      return _supply.get(res) / count;
+  private Rates getRates() {
+    if (_rates == null) {
+      _rates = new Rates(_supplies);
     }
-    return 0.0;
+    return _rates;
   }
 
-  private double getExpectationRatio(Resource res) {
-    return _supply.get(res) / getExpectation(res);
+  private static double getRateFromProbit(double x) {
+    return ((MAX_RATE - MIN_RATE) / (1 + Math.exp(-x))) + MIN_RATE;
   }
 
-  private double getExpectation(Resource unused_res) {
+  private static double getExpectation(Resource unused_res) {
     return EXPECTATION;
   }
 
+  /**
+   * Every rate for one supply, worked out together. A resource's score is its
+   * share of the supply times its supply over its expectation, and its bank
+   * rate comes from how far its score is above half the highest score.
+   */
+  private static final class Rates {
+
+    private final double[] _bankRates;
+    private final double[] _portRates;
+    private final double[] _wildCardRates;
+
+    Rates(double[] supplies) {
+      double count = 0.0;
+      for (double amount : supplies) {
+        count += amount;
+      }
+      double[] scores = new double[supplies.length];
+      double max = 0.0;
+      for (int r = 0; r < supplies.length; r++) {
+        double ratio = count != 0.0 ? supplies[r] / count : 0.0;
+        scores[r] = ratio * (supplies[r] / getExpectation(RESOURCES[r]));
+        max = Math.max(max, scores[r]);
+      }
+      _bankRates = new double[supplies.length];
+      _portRates = new double[supplies.length];
+      _wildCardRates = new double[supplies.length];
+      for (int r = 0; r < supplies.length; r++) {
+        double rate = getRateFromProbit(scores[r] - (max / 2.0));
+        _bankRates[r] = Math.round(rate * 10.0) / 10.0;
+        _portRates[r] = Math.round(0.5 * _bankRates[r] * 10.0) / 10.0;
+        _wildCardRates[r] = Math.round(0.75 * _bankRates[r] * 10.0) / 10.0;
+      }
+    }
+
+  }
+
 }
@@ -31,6 +31,9 @@ public class HumanPlayer implements Player {
   private final String color;
   private int numVictoryPoints;
 
+  // A view of this player that can't change it, shared by every reader.
+  private final transient Player readOnly;
+
   /**
    * Creates a HumanPlayer (CatanPlayer)
    *
@@ -45,6 +48,7 @@ public class HumanPlayer implements Player {
     this.name = name;
     this.id = id;
     this.color = color;
+    this.readOnly = new ReadOnlyPlayer(this);
     this.numRoads = Settings.INITIAL_ROADS;
     this.numSettlements = Settings.INITIAL_SETTLEMENTS;
     this.numCities = Settings.INITIAL_CITIES;
@@ -284,7 +288,7 @@ public class HumanPlayer implements Player {
 
   @Override
   public Player getImmutableCopy() {
-    return new ReadOnlyPlayer(this);
+    return readOnly;
   }
 
   @Override
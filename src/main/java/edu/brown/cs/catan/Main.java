@@ -39,7 +39,12 @@ public class Main {
   private Main() {
     Spark.externalStaticFileLocation(STATIC_FILE_PATH);
     Spark.port(getHerokuAssignedPort());
+    // Jetty keeps its own platform pool; the execution mode covers the work
+    // handed off by the websockets.
     Spark.threadPool(NUM_THREADS, MIN_THREADS, TIMEOUT);
+    System.out.println("Execution mode: " + Networking.EXECUTION_MODE
+        + (Networking.EXECUTION_MODE.isVirtual() ? " (virtual threads)"
+            : " (platform threads)"));
     // secure("", "", "", ""); // use this for https!
     gct = new GCTBuilder("/action")
         .withGroupSelector(new CatanGroupSelector())
@@ -97,6 +102,9 @@ public class Main {
               .put("openGroups", gct.openGroups().toString())
               .put("closedGroups", gct.closedGroups().toString())
               .put("limit", gct.groupLimit())
+              .put("pendingExpiries", gct.pendingExpiries())
+              .put("admission", gct.admissionStats().toString())
+              .put("outboxes", gct.outboxStats().toString())
               .build();
       return new ModelAndView(variables, "stats.ftl");
     }
@@ -10,13 +10,15 @@ import static edu.brown.cs.catan.Settings.SETTLEMENT_POINT_VAL;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import edu.brown.cs.actions.FollowUpAction;
 import edu.brown.cs.board.Board;
-import edu.brown.cs.board.Intersection;
+import edu.brown.cs.board.Topology;
 import edu.brown.cs.gamestats.CatanStats;
 import edu.brown.cs.gamestats.GameStats;
 
@@ -36,9 +38,23 @@ public class MasterReferee implements Referee {
   private final GameSettings _gameSettings;
   private Player _largestArmy = null;
   private Player _longestRoad = null;
+  // the board's road version when _longestRoad was last worked out.
+  private int _longestRoadVersion = -1;
+  // each player's trade rates, kept until someone gets a port or the bank's
+  // rates change.
+  private final Map<Integer, Map<Resource, Double>> _bankRates =
+      new HashMap<>();
+  private int _portVersion = -1;
+  private int _bankRatesVersion = -1;
   private GameStatus _gameStatus;
   private final Setup _setup;
   private GameStats _gameStats;
+  // what readers see: one read-only view of this referee, and the turn
+  // snapshot and player views it hands out, which are null until asked for and
+  // again whenever what they show changes.
+  private final Referee _readOnly = new ReadOnlyReferee(this);
+  private Turn _turnSnapshot = null;
+  private List<Player> _playerViews = null;
 
   /**
    * Creates a MasterReferee. Contains all Catan game data with default game
@@ -110,7 +126,7 @@ public class MasterReferee implements Referee {
     } else {
       _turn = new Turn(_turn.getTurnNum() + 1, Collections.emptyMap());
     }
-
+    _turnSnapshot = null;
   }
 
   @Override
@@ -134,6 +150,7 @@ public class MasterReferee implements Referee {
   @Override
   public void addFollowUp(Collection<FollowUpAction> actions) {
     _turn.addFollowUp(actions);
+    _turnSnapshot = null;
   }
 
   @Override
@@ -172,12 +189,15 @@ public class MasterReferee implements Referee {
 
   @Override
   public Referee getReadOnlyReferee() {
-    return new ReadOnlyReferee(this);
+    return _readOnly;
   }
 
   @Override
   public Turn getTurn() {
-    return _turn.getCopy();
+    if (_turnSnapshot == null) {
+      _turnSnapshot = _turn.getSnapshot();
+    }
+    return _turnSnapshot;
   }
 
   @Override
@@ -198,10 +218,21 @@ public class MasterReferee implements Referee {
   @Override
   public void playDevCard() {
     _turn.setDevCardHasBeenPlayed();
+    _turnSnapshot = null;
   }
 
   @Override
   public boolean hasLongestRoad(int id) {
+    int version = _board.getTopology().getRoadVersion();
+    if (version != _longestRoadVersion) {
+      _longestRoadVersion = version;
+      updateLongestRoad();
+    }
+    return _longestRoad != null ? _longestRoad.getID() == id : false;
+  }
+
+  // Hands longest road to whoever has earned it since the roads last changed.
+  private void updateLongestRoad() {
     if (_longestRoad == null) {
       int max = 0;
       for (Player p : _players.values()) {
@@ -221,7 +252,6 @@ public class MasterReferee implements Referee {
         }
       }
     }
-    return _longestRoad != null ? _longestRoad.getID() == id : false;
   }
 
   @Override
@@ -276,27 +306,31 @@ public class MasterReferee implements Referee {
 
   @Override
   public Map<Resource, Double> getBankRates(int id) {
-    Player player = getPlayerByID(id);
-    Map<Resource, Double> rates = new HashMap<>();
+    Topology topology = _board.getTopology();
+    if (topology.getPortVersion() != _portVersion
+        || _bank.getRatesVersion() != _bankRatesVersion) {
+      _bankRates.clear();
+      _portVersion = topology.getPortVersion();
+      _bankRatesVersion = _bank.getRatesVersion();
+    }
+    return _bankRates.computeIfAbsent(id, this::computeBankRates);
+  }
+
+  private Map<Resource, Double> computeBankRates(int id) {
+    Set<Resource> ports = _board.getTopology().ports(id);
+    boolean wildCard = ports.contains(Resource.WILDCARD);
+    Map<Resource, Double> rates = new EnumMap<>(Resource.class);
     for (Resource r : Resource.values()) {
-      rates.put(r, _bank.getBankRate(r));
-    }
-    for (Intersection i : _board.getIntersections().values()) {
-      if (i.getPort() != null && i.getBuilding() != null
-          && i.getBuilding().getPlayer().equals(player)) {
-        if (i.getPort().getResource() == Resource.WILDCARD) {
-          for (Resource r : Resource.values()) {
-            double rate = Math.min(rates.get(r), _bank.getWildCardRate(r));
-            rates.put(r, rate);
-          }
-        } else {
-          Resource r = i.getPort().getResource();
-          double rate = Math.min(rates.get(r), _bank.getPortRate(r));
-          rates.put(r, rate);
-        }
+      double rate = _bank.getBankRate(r);
+      if (wildCard) {
+        rate = Math.min(rate, _bank.getWildCardRate(r));
       }
+      if (ports.contains(r) && r != Resource.WILDCARD) {
+        rate = Math.min(rate, _bank.getPortRate(r));
+      }
+      rates.put(r, rate);
     }
-    return rates;
+    return Collections.unmodifiableMap(rates);
   }
 
   @Override
@@ -309,6 +343,7 @@ public class MasterReferee implements Referee {
     if (_turn.getTurnNum() == 1) {
       int id = _players.size();
       _players.put(id, new HumanPlayer(id, name, color));
+      _playerViews = null;
       return id;
     }
     throw new UnsupportedOperationException(
@@ -328,7 +363,7 @@ public class MasterReferee implements Referee {
   @Override
   public void removeFollowUp(FollowUpAction action) {
     _turn.removeFollowUp(action);
-
+    _turnSnapshot = null;
   }
 
   @Override
@@ -358,6 +393,7 @@ public class MasterReferee implements Referee {
 
   @Override
   public boolean removePlayer(int id) {
+    _playerViews = null;
     return _players.remove(id) != null;
   }
 
@@ -403,11 +439,14 @@ public class MasterReferee implements Referee {
 
     @Override
     public List<Player> getPlayers() {
-      List<Player> list = new ArrayList<>();
-      for (Player p : _referee.getPlayers()) {
-        list.add(p.getImmutableCopy());
+      if (_playerViews == null) {
+        List<Player> list = new ArrayList<>();
+        for (Player p : _referee.getPlayers()) {
+          list.add(p.getImmutableCopy());
+        }
+        _playerViews = Collections.unmodifiableList(list);
       }
-      return Collections.unmodifiableList(list);
+      return _playerViews;
     }
 
     @Override
@@ -44,4 +44,10 @@ public class SimpleBank implements Bank {
   public double getWildCardRate(Resource res) {
     return Settings.WILDCARD_RATE;
   }
+
+  @Override
+  public int getRatesVersion() {
+    return 0; // The rates never change.
+  }
+
 }
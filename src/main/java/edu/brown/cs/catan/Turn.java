@@ -7,6 +7,9 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
 import edu.brown.cs.actions.FollowUpAction;
 
 /**
@@ -22,6 +25,7 @@ public class Turn {
   private final int _turnNum;
   private List<Collection<FollowUpAction>> _followUps;
   private Map<DevelopmentCard, Integer> _initialDevCardHand;
+  private final boolean _readOnly;
 
   /**
    * Creates a Turn.
@@ -37,6 +41,7 @@ public class Turn {
     _turnNum = turnNum;
     _followUps = new ArrayList<>();
     _initialDevCardHand = new HashMap<>(initialDevCardHand);
+    _readOnly = false;
   }
 
   /**
@@ -44,13 +49,27 @@ public class Turn {
    *
    * @param turn
    *          the Turn to copy.
+   * @param readOnly
+   *          Whether the copy is a snapshot: nothing in it can change, so it
+   *          can be shared by everyone reading the turn until the turn changes.
    */
-  private Turn(Turn turn) {
+  private Turn(Turn turn, boolean readOnly) {
     _timeStarted = turn.getTimeStarted();
     _devHasBeenPlayed = turn.devHasBeenPlayed();
     _turnNum = turn.getTurnNum();
-    _followUps = turn.getAllFollowUps();
-    _initialDevCardHand = new HashMap<>(turn.getInitialDevCards());
+    if (readOnly) {
+      ImmutableList.Builder<Collection<FollowUpAction>> followUps;
+      followUps = ImmutableList.builder();
+      for (Collection<FollowUpAction> el : turn._followUps) {
+        followUps.add(ImmutableList.copyOf(el));
+      }
+      _followUps = followUps.build();
+      _initialDevCardHand = ImmutableMap.copyOf(turn._initialDevCardHand);
+    } else {
+      _followUps = turn.getAllFollowUps();
+      _initialDevCardHand = new HashMap<>(turn.getInitialDevCards());
+    }
+    _readOnly = readOnly;
   }
 
   /* Returns all FollowUps. */
@@ -76,6 +95,7 @@ public class Turn {
   }
 
   void addFollowUp(Collection<FollowUpAction> actions) {
+    checkWritable();
     List<FollowUpAction> actionsCopy = new ArrayList<>();
     for (FollowUpAction action : actions) {
       actionsCopy.add(action);
@@ -109,6 +129,7 @@ public class Turn {
    *          The FollowUpAction to remove.
    */
   public void removeFollowUp(FollowUpAction action) {
+    checkWritable();
     Collection<FollowUpAction> curr = _followUps.get(0);
     curr.remove(action);
     if (curr.isEmpty()) {
@@ -120,6 +141,7 @@ public class Turn {
    * Should be called when a development card is played in a turn.
    */
   public void setDevCardHasBeenPlayed() {
+    checkWritable();
     _devHasBeenPlayed = true;
   }
 
@@ -129,7 +151,24 @@ public class Turn {
    * @return A Turn.
    */
   public Turn getCopy() {
-    return new Turn(this);
+    return new Turn(this, false);
+  }
+
+  /**
+   * Returns a read-only snapshot of the Turn, which throws
+   * UnsupportedOperationException if anything tries to change it.
+   *
+   * @return A Turn.
+   */
+  public Turn getSnapshot() {
+    return _readOnly ? this : new Turn(this, true);
+  }
+
+  private void checkWritable() {
+    if (_readOnly) {
+      throw new UnsupportedOperationException(
+          "A snapshot of a Turn cannot be changed.");
+    }
   }
 
   public long getTimeElapsed() {
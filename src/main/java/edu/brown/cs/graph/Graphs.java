@@ -1,5 +1,14 @@
 package edu.brown.cs.graph;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
 
 /**
  * A utility class for Graph algorithms. Should use the classes Node and Edge to
@@ -7,6 +16,212 @@ package edu.brown.cs.graph;
  */
 public abstract class Graphs {
 
-  //Check for longest road & other longest road algorithms
+  /**
+   * Finds the length of the longest trail, a walk that uses no edge twice, in
+   * an undirected graph given by its edges' ends. This is longest road: the
+   * edges are one player's roads and the nodes they may not pass through are
+   * other players' buildings.
+   *
+   * The search is exact. It tries every trail from every node with a depth
+   * first search that marks used edges in a bitset, and prunes with the size
+   * of each connected component, since no trail is longer than its component:
+   * a component is skipped when the best trail found is already that long, and
+   * the search of a component stops as soon as a trail uses all its edges.
+   *
+   * @param nodeCount
+   *          Number of nodes, numbered from 0.
+   * @param edgeEnds
+   *          The two ends of each edge: edge e joins {@code edgeEnds[2 * e]}
+   *          and {@code edgeEnds[2 * e + 1]}.
+   * @param passableNodes
+   *          Whether a trail may pass through each node. A trail may still
+   *          start or end at a node it can't pass through. Null if it can pass
+   *          through them all.
+   * @return The number of edges in the longest trail.
+   */
+  public static int longestTrail(int nodeCount, int[] edgeEnds,
+      boolean[] passableNodes) {
+    if (edgeEnds.length % 2 != 0) {
+      throw new IllegalArgumentException("Every edge must have two ends.");
+    }
+    return new TrailSearch(nodeCount, edgeEnds, passableNodes).longest();
+  }
+
+  /**
+   * Finds the length of the longest trail through the part of a graph that
+   * can be reached from some nodes. See
+   * {@link #longestTrail(int, int[], boolean[])}.
+   *
+   * @param <E>
+   *          Edge data type
+   * @param <N>
+   *          Node data type
+   * @param starts
+   *          Nodes to explore the graph from.
+   * @param usable
+   *          Which edges trails may use. The graph is only explored along
+   *          these.
+   * @param passable
+   *          Which nodes trails may pass through.
+   * @return The number of edges in the longest trail.
+   */
+  public static <E, N> int longestTrail(
+      Collection<? extends Node<E, N>> starts,
+      Predicate<? super Edge<E, N>> usable,
+      Predicate<? super Node<E, N>> passable) {
+    Map<Node<E, N>, Integer> nodes = new HashMap<>();
+    List<Node<E, N>> byIndex = new ArrayList<>();
+    Map<Edge<E, N>, Integer> edges = new HashMap<>();
+    List<Integer> ends = new ArrayList<>();
+    Deque<Node<E, N>> toVisit = new ArrayDeque<>();
+    for (Node<E, N> start : starts) {
+      if (!nodes.containsKey(start)) {
+        nodes.put(start, byIndex.size());
+        byIndex.add(start);
+        toVisit.add(start);
+      }
+    }
+    while (!toVisit.isEmpty()) {
+      Node<E, N> node = toVisit.poll();
+      for (Edge<E, N> edge : node.getEdges()) {
+        if (edges.containsKey(edge) || !usable.test(edge)) {
+          continue;
+        }
+        edges.put(edge, edges.size());
+        Node<E, N> other = edge.getAdjacent(node);
+        if (!nodes.containsKey(other)) {
+          nodes.put(other, byIndex.size());
+          byIndex.add(other);
+          toVisit.add(other);
+        }
+        ends.add(nodes.get(node));
+        ends.add(nodes.get(other));
+      }
+    }
+    int[] edgeEnds = new int[ends.size()];
+    for (int i = 0; i < edgeEnds.length; i++) {
+      edgeEnds[i] = ends.get(i);
+    }
+    boolean[] passableNodes = new boolean[byIndex.size()];
+    for (int i = 0; i < passableNodes.length; i++) {
+      passableNodes[i] = passable.test(byIndex.get(i));
+    }
+    return longestTrail(byIndex.size(), edgeEnds, passableNodes);
+  }
+
+  /**
+   * One longest trail search, over the graph in compressed rows: the edges at
+   * node v are {@code adjacentEdges[edgeStarts[v]]} up to
+   * {@code adjacentEdges[edgeStarts[v + 1] - 1]}.
+   */
+  private static final class TrailSearch {
+
+    private final int[] _edgeEnds;
+    private final boolean[] _passableNodes;
+    private final int[] _edgeStarts;
+    private final int[] _adjacentEdges;
+    private final int[] _components;
+    private final int[] _componentSizes;
+    private final long[] _usedEdges;
+    private int _best;
+    private int _bound;
+
+    TrailSearch(int nodeCount, int[] edgeEnds, boolean[] passableNodes) {
+      _edgeEnds = edgeEnds;
+      _passableNodes = passableNodes;
+      int edgeCount = edgeEnds.length / 2;
+      int[] degrees = new int[nodeCount];
+      for (int end : edgeEnds) {
+        degrees[end]++;
+      }
+      _edgeStarts = new int[nodeCount + 1];
+      for (int v = 0; v < nodeCount; v++) {
+        _edgeStarts[v + 1] = _edgeStarts[v] + degrees[v];
+      }
+      _adjacentEdges = new int[_edgeStarts[nodeCount]];
+      int[] fillCounts = new int[nodeCount];
+      for (int i = 0; i < edgeEnds.length; i++) {
+        int v = edgeEnds[i];
+        _adjacentEdges[_edgeStarts[v] + fillCounts[v]++] = i / 2;
+      }
+
+      // label connected components, counting their edges.
+      _components = new int[nodeCount];
+      Arrays.fill(_components, -1);
+      int[] sizes = new int[nodeCount];
+      int componentCount = 0;
+      int[] pendingNodes = new int[nodeCount];
+      for (int v = 0; v < nodeCount; v++) {
+        if (_components[v] >= 0 || degrees[v] == 0) {
+          continue;
+        }
+        int top = 0;
+        pendingNodes[top++] = v;
+        _components[v] = componentCount;
+        while (top > 0) {
+          int u = pendingNodes[--top];
+          sizes[componentCount] += degrees[u];
+          for (int k = _edgeStarts[u]; k < _edgeStarts[u + 1]; k++) {
+            int w = otherEnd(_adjacentEdges[k], u);
+            if (_components[w] < 0) {
+              _components[w] = componentCount;
+              pendingNodes[top++] = w;
+            }
+          }
+        }
+        sizes[componentCount] /= 2;
+        componentCount++;
+      }
+      _componentSizes = sizes;
+      _usedEdges = new long[(edgeCount + 63) / 64];
+    }
+
+    int longest() {
+      for (int v = 0; v < _components.length; v++) {
+        if (_components[v] < 0) {
+          continue;
+        }
+        _bound = _componentSizes[_components[v]];
+        if (_best < _bound) {
+          extend(v, 0);
+        }
+      }
+      return _best;
+    }
+
+    // walks on from node v with a trail of the given length so far. Returns
+    // true once the trail uses every edge of its component, when there is
+    // nothing longer to find.
+    private boolean extend(int v, int length) {
+      if (length > _best) {
+        _best = length;
+        if (_best == _bound) {
+          return true;
+        }
+      }
+      if (length > 0 && _passableNodes != null && !_passableNodes[v]) {
+        return false;
+      }
+      for (int k = _edgeStarts[v]; k < _edgeStarts[v + 1]; k++) {
+        int e = _adjacentEdges[k];
+        long bit = 1L << (e & 63);
+        if ((_usedEdges[e >>> 6] & bit) != 0) {
+          continue;
+        }
+        _usedEdges[e >>> 6] |= bit;
+        boolean done = extend(otherEnd(e, v), length + 1);
+        _usedEdges[e >>> 6] &= ~bit;
+        if (done) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    private int otherEnd(int e, int v) {
+      return _edgeEnds[2 * e] == v ? _edgeEnds[2 * e + 1] : _edgeEnds[2 * e];
+    }
+
+  }
 
 }
@@ -17,9 +17,38 @@ public interface API {
    *
    * @param forPlayer
    *          the user identifier integer for this player
-   * @return a JsonObject representing the state of the game for this player.
+   * @return the state of the game for this player, encoded and ready to send.
    */
-  JsonObject getGameState(int forPlayer);
+  Frame getGameState(int forPlayer);
+
+
+  /**
+   * Get what has changed in the game state for {@code forPlayer} since the
+   * last state they were sent. APIs that don't track what was sent return the
+   * full state.
+   *
+   * @param forPlayer
+   *          the user identifier integer for this player
+   * @return the update, encoded and ready to send, or null if nothing changed.
+   */
+  default Frame getGameStateUpdate(int forPlayer) {
+    return getGameState(forPlayer);
+  }
+
+
+  /**
+   * Get the part of the game that never changes, for a client to keep for the
+   * rest of its session. Game states sent afterwards name the hash of the one
+   * they build on.
+   *
+   * @param knownHash
+   *          the hash of the static state the client already holds, or null.
+   * @return the static state, encoded and ready to send, or null if the
+   *         client's is current or the API has none.
+   */
+  default Frame getStaticState(String knownHash) {
+    return null;
+  }
 
 
   /**
@@ -35,6 +64,19 @@ public interface API {
   Map<Integer, JsonObject> performAction(String action);
 
 
+  /**
+   * Perform an action that has already been parsed, as above. APIs that only
+   * take actions as text get it serialized again.
+   *
+   * @param action
+   *          the desired action, as sent by the front end user.
+   * @return a map of id's to response Json for each user.
+   */
+  default Map<Integer, JsonObject> performAction(JsonObject action) {
+    return performAction(action.toString());
+  }
+
+
   /**
    * Add a player to this game, providing attributes in the form of JSON.
    *
@@ -0,0 +1,247 @@
+package edu.brown.cs.networking;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.gson.JsonObject;
+
+/**
+ * Decides whether the GCT may start another Group. Instead of a fixed game
+ * limit, the limit is sized from measured load: it grows one game at a time
+ * while every signal is under its threshold, and drops to the number of live
+ * games as soon as any signal crosses its threshold. The signals are the time
+ * from a task being queued on a mailbox to it finishing, the fraction of the
+ * heap in use, and the number of tasks waiting in mailboxes.
+ *
+ * New games that aren't admitted are queued, up to a bound, and rejected past
+ * it. Joining an existing game is never subject to admission.
+ */
+public final class AdmissionController {
+
+  /**
+   * What to do with a request for a new game.
+   */
+  public enum Decision {
+    ADMIT, QUEUE, REJECT
+  }
+
+  // weight of the newest sample in the latency moving average.
+  private static final double LATENCY_WEIGHT = 0.1;
+  private static final double NANOS_PER_MS   = 1e6;
+  // an idle server has no fresh latency samples; old ones stop counting.
+  private static final long   STALE_NANOS    = 5_000_000_000L;
+
+  private final int           minGroups;
+  private final int           maxGroups;
+  private final long          maxLatencyNanos;
+  private final double        maxHeapFraction;
+  private final int           maxQueueDepth;
+  private final int           maxWaiting;
+
+  private final AtomicInteger queueDepth;
+  private final AtomicLong    latencyNanos;
+  private final AtomicLong    lastSampleNanos;
+  private final AtomicInteger admitted;
+  private final AtomicInteger queued;
+  private final AtomicInteger rejected;
+  private volatile int        limit;
+  private volatile Decision   lastDecision;
+
+
+  private AdmissionController(AdmissionBuilder b) {
+    this.minGroups = b.minGroups;
+    this.maxGroups = b.maxGroups;
+    this.maxLatencyNanos = (long) (b.maxLatencyMillis * NANOS_PER_MS);
+    this.maxHeapFraction = b.maxHeapFraction;
+    this.maxQueueDepth = b.maxQueueDepth;
+    this.maxWaiting = b.maxWaiting;
+    this.queueDepth = new AtomicInteger();
+    this.latencyNanos = new AtomicLong();
+    this.lastSampleNanos = new AtomicLong(System.nanoTime());
+    this.admitted = new AtomicInteger();
+    this.queued = new AtomicInteger();
+    this.rejected = new AtomicInteger();
+    this.limit = Math.max(minGroups, Math.min(b.initialGroups, maxGroups));
+    this.lastDecision = Decision.ADMIT;
+  }
+
+
+  /**
+   * Note that a task has been queued on a mailbox.
+   */
+  public void taskQueued() {
+    queueDepth.incrementAndGet();
+  }
+
+
+  /**
+   * Note that a task has finished.
+   *
+   * @param nanos
+   *          time from the task being queued to it finishing.
+   */
+  public void taskFinished(long nanos) {
+    queueDepth.decrementAndGet();
+    latencyNanos.updateAndGet(avg -> avg == 0 ? nanos
+        : (long) (avg + LATENCY_WEIGHT * (nanos - avg)));
+    lastSampleNanos.set(System.nanoTime());
+  }
+
+
+  /**
+   * Decide what to do with a request for a new game.
+   *
+   * @param liveGroups
+   *          the number of games currently running or filling up.
+   * @param waiting
+   *          the number of new-game requests already queued.
+   * @return the decision.
+   */
+  public Decision admit(int liveGroups, int waiting) {
+    Decision d;
+    synchronized (this) {
+      if (overloaded()) {
+        limit = Math.max(minGroups, Math.min(limit, liveGroups));
+      } else if (liveGroups >= limit) {
+        limit = Math.min(maxGroups, liveGroups + 1); // probe for headroom
+      }
+      if (liveGroups < limit) {
+        d = Decision.ADMIT;
+      } else if (waiting < maxWaiting) {
+        d = Decision.QUEUE;
+      } else {
+        d = Decision.REJECT;
+      }
+    }
+    record(d);
+    return d;
+  }
+
+
+  private void record(Decision d) {
+    lastDecision = d;
+    switch (d) {
+      case ADMIT:
+        admitted.incrementAndGet();
+        break;
+      case QUEUE:
+        queued.incrementAndGet();
+        break;
+      default:
+        rejected.incrementAndGet();
+        break;
+    }
+  }
+
+
+  /**
+   * @return true if any signal is over its threshold.
+   */
+  public boolean overloaded() {
+    return latencyMillis() * NANOS_PER_MS > maxLatencyNanos
+        || heapFraction() > maxHeapFraction
+        || queueDepth.get() > maxQueueDepth;
+  }
+
+
+  /**
+   * @return the current limit on concurrent games.
+   */
+  public int limit() {
+    return limit;
+  }
+
+
+  /**
+   * @param liveGroups
+   *          the number of games currently running or filling up.
+   * @return true if a new game would not be admitted right now.
+   */
+  public boolean atLimit(int liveGroups) {
+    return liveGroups >= (overloaded() ? limit : maxGroups);
+  }
+
+
+  private double latencyMillis() {
+    if (System.nanoTime() - lastSampleNanos.get() > STALE_NANOS) {
+      return 0;
+    }
+    return latencyNanos.get() / NANOS_PER_MS;
+  }
+
+
+  private static double heapFraction() {
+    Runtime rt = Runtime.getRuntime();
+    return (double) (rt.totalMemory() - rt.freeMemory()) / rt.maxMemory();
+  }
+
+
+  /**
+   * @return the signals, limit and decisions made so far, as Json.
+   */
+  public JsonObject asJson() {
+    JsonObject j = new JsonObject();
+    j.addProperty("limit", limit);
+    j.addProperty("overloaded", overloaded());
+    j.addProperty("latencyMillis", latencyMillis());
+    j.addProperty("heapFraction", heapFraction());
+    j.addProperty("queueDepth", queueDepth.get());
+    j.addProperty("lastDecision", lastDecision.toString());
+    j.addProperty("admitted", admitted.get());
+    j.addProperty("queued", queued.get());
+    j.addProperty("rejected", rejected.get());
+    return j;
+  }
+
+
+  // MARK: BUILDER --------------------------------------------------
+
+  public static class AdmissionBuilder {
+
+    private int    minGroups        = 1;
+    private int    initialGroups    = 20;
+    private int    maxGroups        = 500;
+    private double maxLatencyMillis = 250;
+    private double maxHeapFraction  = 0.85;
+    private int    maxQueueDepth    = 1000;
+    private int    maxWaiting       = 50;
+
+
+    public AdmissionBuilder withGroupRange(int min, int initial, int max) {
+      this.minGroups = min;
+      this.initialGroups = initial;
+      this.maxGroups = max;
+      return this;
+    }
+
+
+    public AdmissionBuilder withMaxLatencyMillis(double millis) {
+      this.maxLatencyMillis = millis;
+      return this;
+    }
+
+
+    public AdmissionBuilder withMaxHeapFraction(double fraction) {
+      this.maxHeapFraction = fraction;
+      return this;
+    }
+
+
+    public AdmissionBuilder withMaxQueueDepth(int depth) {
+      this.maxQueueDepth = depth;
+      return this;
+    }
+
+
+    public AdmissionBuilder withMaxWaiting(int waiting) {
+      this.maxWaiting = waiting;
+      return this;
+    }
+
+
+    public AdmissionController build() {
+      return new AdmissionController(this);
+    }
+  }
+
+}
@@ -10,7 +10,7 @@ import com.google.gson.JsonObject;
 class BasicAPI implements API {
 
   @Override
-  public JsonObject getGameState(int forPlayer) {
+  public Frame getGameState(int forPlayer) {
     print("DEMO: Called getGameState for player " + forPlayer);
     return null;
   }
@@ -20,4 +20,9 @@ class BasicGroupSelector implements GroupSelector {
     return b.build();
   }
 
+  @Override
+  public boolean opensNewGroup(User u, Collection<Group> coll) {
+    return coll.stream().allMatch(Group::isFull);
+  }
+
 }
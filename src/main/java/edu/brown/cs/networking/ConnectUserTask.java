@@ -14,15 +14,9 @@ class ConnectUserTask implements Runnable {
 
   @Override
   public void run() {
-    Group g = gct.groupForUser(u);
-    if (g == null) {
-      if (!gct.add(u)) { // bad parameters, need to reset the user.
-        u.message(Networking.errorMessage("RESET"));
-      }
-    } else {
-      g.add(u);
+    if (!gct.add(u)) { // group filled up underneath us, need to reset the user.
+      u.message(Networking.errorMessage("RESET"));
     }
-
   }
 
 }
@@ -0,0 +1,96 @@
+package edu.brown.cs.networking;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * How the networking layer runs its work: group mailboxes and the message,
+ * connect and disconnect tasks queued on them. {@code PLATFORM} uses a fixed
+ * pool of ordinary threads and is the default. {@code VIRTUAL} gives every
+ * mailbox drain its own virtual thread, so a task that blocks (on a slow
+ * socket, say) costs no pool slot. Virtual threads need a JDK 21+ runtime; on
+ * older runtimes {@code VIRTUAL} falls back to platform threads.
+ *
+ * The mode is chosen with the {@code catan.executionMode} system property or
+ * the {@code EXECUTION_MODE} environment variable.
+ */
+public enum ExecutionMode {
+
+  PLATFORM, VIRTUAL;
+
+  private static final String       PROPERTY    = "catan.executionMode";
+  private static final String       ENVIRONMENT = "EXECUTION_MODE";
+
+  // looked up reflectively, since we still compile against Java 8.
+  private static final MethodHandle NEW_VIRTUAL_EXECUTOR;
+
+  static {
+    MethodHandle executor = null;
+    try {
+      executor = MethodHandles.publicLookup().findStatic(Executors.class,
+          "newVirtualThreadPerTaskExecutor",
+          MethodType.methodType(ExecutorService.class));
+    } catch (NoSuchMethodException | IllegalAccessException e) {
+      executor = null;
+    }
+    NEW_VIRTUAL_EXECUTOR = executor;
+  }
+
+
+  /**
+   * @return the mode requested by the environment, else {@code PLATFORM}.
+   */
+  public static ExecutionMode fromEnvironment() {
+    String requested = System.getProperty(PROPERTY, System.getenv(ENVIRONMENT));
+    if (requested == null) {
+      return PLATFORM;
+    }
+    try {
+      return valueOf(requested.trim().toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      System.out.println("Unknown execution mode " + requested
+          + ", using " + PLATFORM);
+      return PLATFORM;
+    }
+  }
+
+
+  /**
+   * @return true if this runtime supports virtual threads.
+   */
+  public static boolean virtualThreadsAvailable() {
+    return NEW_VIRTUAL_EXECUTOR != null;
+  }
+
+
+  /**
+   * @return true if this mode will really use virtual threads on this runtime.
+   */
+  public boolean isVirtual() {
+    return this == VIRTUAL && virtualThreadsAvailable();
+  }
+
+
+  /**
+   * Make an executor for short tasks.
+   *
+   * @param platformThreads
+   *          the number of threads to use when not running on virtual threads.
+   * @return a new ExecutorService
+   */
+  public ExecutorService newTaskExecutor(int platformThreads) {
+    if (isVirtual()) {
+      try {
+        return (ExecutorService) NEW_VIRTUAL_EXECUTOR.invoke();
+      } catch (Throwable e) {
+        throw new IllegalStateException("Couldn't make virtual executor", e);
+      }
+    }
+    return Executors.newFixedThreadPool(platformThreads);
+  }
+
+}
@@ -0,0 +1,120 @@
+package edu.brown.cs.networking;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Owns the deadlines of every disconnected (AFK) User. A single timer thread
+ * fires one callback per User when its deadline passes; a User that comes back
+ * first has its deadline cancelled. This replaces a sleeping thread per
+ * disconnected User.
+ */
+final class ExpiryService {
+
+  private static final ExpiryService        SHARED = new ExpiryService();
+
+  private final ScheduledThreadPoolExecutor timer;
+  private final Map<User, Deadline>         deadlines;
+
+
+  private ExpiryService() {
+    timer = new ScheduledThreadPoolExecutor(1, r -> {
+      Thread t = new Thread(r, "afk-expiry");
+      t.setDaemon(true);
+      return t;
+    });
+    timer.setRemoveOnCancelPolicy(true);
+    deadlines = new ConcurrentHashMap<>();
+  }
+
+
+  /**
+   * @return the ExpiryService shared by every Group.
+   */
+  public static ExpiryService shared() {
+    return SHARED;
+  }
+
+
+  /**
+   * Run {@code onExpiry} at {@code expiresAt}, unless {@link #cancel} is called
+   * for {@code u} first. Replaces any deadline already held for {@code u}.
+   *
+   * @param u
+   *          the disconnected user
+   * @param expiresAt
+   *          the deadline, in epoch milliseconds
+   * @param onExpiry
+   *          what to do when the deadline passes
+   */
+  public void schedule(User u, long expiresAt, Runnable onExpiry) {
+    Deadline d = new Deadline(u, onExpiry);
+    Deadline old = deadlines.put(u, d);
+    if (old != null) {
+      old.cancel();
+    }
+    long delay = Math.max(0, expiresAt - System.currentTimeMillis());
+    d.future = timer.schedule(d, delay, TimeUnit.MILLISECONDS);
+  }
+
+
+  /**
+   * Drop the deadline held for {@code u}, if any.
+   *
+   * @param u
+   *          the user that came back
+   * @return true if a deadline was cancelled.
+   */
+  public boolean cancel(User u) {
+    Deadline d = deadlines.remove(u);
+    if (d == null) {
+      return false;
+    }
+    d.cancel();
+    return true;
+  }
+
+
+  /**
+   * @return the number of deadlines that haven't fired or been cancelled.
+   */
+  public int pending() {
+    return deadlines.size();
+  }
+
+
+  // a deadline only fires if it is still the one registered for its user, so
+  // a cancel that races the timer can never let the callback through.
+  private final class Deadline implements Runnable {
+
+    private final User                  u;
+    private final Runnable              onExpiry;
+    private volatile ScheduledFuture<?> future;
+
+
+    Deadline(User u, Runnable onExpiry) {
+      this.u = u;
+      this.onExpiry = onExpiry;
+    }
+
+
+    @Override
+    public void run() {
+      if (deadlines.remove(u, this)) {
+        onExpiry.run();
+      }
+    }
+
+
+    void cancel() {
+      ScheduledFuture<?> f = future;
+      if (f != null) {
+        f.cancel(false);
+      }
+    }
+  }
+
+}
@@ -0,0 +1,57 @@
+package edu.brown.cs.networking;
+
+import com.google.gson.JsonObject;
+
+/**
+ * A message that has already been serialized. A Frame is immutable, so the
+ * same one can be handed to any number of Users: a broadcast costs one
+ * serialization, however many players are in the game.
+ */
+public final class Frame {
+
+  private final String text;
+
+
+  private Frame(String text) {
+    this.text = text;
+  }
+
+
+  /**
+   * Serialize {@code json} into a Frame.
+   *
+   * @param json
+   *          the message
+   * @return the encoded message
+   */
+  public static Frame of(JsonObject json) {
+    return new Frame(json.toString());
+  }
+
+
+  /**
+   * Wrap a message that has already been written as JSON.
+   *
+   * @param json
+   *          the encoded message
+   * @return the message as a Frame
+   */
+  public static Frame of(String json) {
+    return new Frame(json);
+  }
+
+
+  /**
+   * @return the encoded message, as it goes on the wire.
+   */
+  public String text() {
+    return text;
+  }
+
+
+  @Override
+  public String toString() {
+    return text;
+  }
+
+}
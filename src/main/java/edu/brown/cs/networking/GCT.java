@@ -5,14 +5,28 @@ import static edu.brown.cs.networking.Util.format;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.jetty.util.ConcurrentHashSet;
 
+import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 
+import edu.brown.cs.networking.AdmissionController.AdmissionBuilder;
+import edu.brown.cs.networking.AdmissionController.Decision;
+
 import spark.Spark;
 
 /**
@@ -22,22 +36,45 @@ import spark.Spark;
  */
 public final class GCT {
 
-  private final Set<Group>       pending;
-  private final Set<Group>       full;
-  private final Map<User, Group> userToUserGroup;
-  private final GroupSelector    groupSelector;
+  private static final int              SLOWEST_USERS_SHOWN = 5;
 
-  private static final int       GAME_LIMIT = 20;
+  private final Set<Group>              pending;
+  private final Set<Group>              full;
+  private final Map<String, Member>     members;
+  private final Map<Group, Set<String>> memberIDs;
+  private final Map<Group, Mailbox>     mailboxes;
+  private final ExecutorService         scheduler;
+  private final Queue<Waiting>          waiting;
+  private final GroupSelector           groupSelector;
+  private final AdmissionController     admission;
+  private final ScheduledFuture<?>      admissionTicker;
 
 
   private GCT(GCTBuilder builder) {
     // Not provided by builder:
     this.pending = new ConcurrentHashSet<>();
     this.full = new ConcurrentHashSet<>();
-    this.userToUserGroup = new ConcurrentHashMap<>();
+    this.members = new ConcurrentHashMap<>();
+    this.memberIDs = new ConcurrentHashMap<>();
+    this.mailboxes = new ConcurrentHashMap<>();
+    this.scheduler = Networking.EXECUTION_MODE
+        .newTaskExecutor(Runtime.getRuntime().availableProcessors());
+    this.waiting = new ConcurrentLinkedQueue<>();
 
     // provided by builder:
     this.groupSelector = builder.groupSelector;
+    this.admission = builder.admission;
+
+    // load changes without groups coming or going, so keep retrying.
+    ScheduledExecutorService ticker =
+        Executors.newSingleThreadScheduledExecutor(r -> {
+          Thread t = new Thread(r, "admission");
+          t.setDaemon(true);
+          return t;
+        });
+    this.admissionTicker = ticker.scheduleWithFixedDelay(this::admitWaiting,
+        1, 1, TimeUnit.SECONDS);
+
     Spark.webSocket(builder.webSocketRoute, ReceivingWebsocket.class);
     ReceivingWebsocket.setGct(this);
 
@@ -51,10 +88,74 @@ public final class GCT {
 
 
   /**
-   * @return the maximum number of concurrent groups that this GCT supports.
+   * @return the maximum number of concurrent groups that this GCT currently
+   *         supports, as sized by its AdmissionController.
    */
   public int groupLimit() {
-    return GAME_LIMIT;
+    return admission.limit();
+  }
+
+
+  /**
+   * Stop retrying the new games held back by admission control. Users still
+   * waiting are left waiting.
+   */
+  public void stopAdmission() {
+    admissionTicker.cancel(false);
+  }
+
+
+  /**
+   * @return the admission signals, limit and decisions, plus the number of
+   *         new games waiting to be admitted.
+   */
+  public JsonObject admissionStats() {
+    JsonObject j = admission.asJson();
+    j.addProperty("liveGroups", liveGroups());
+    j.addProperty("waiting", waiting.size());
+    return j;
+  }
+
+
+  /**
+   * @return totals over every routed user's outbound queue, plus the users
+   *         with the most messages waiting.
+   */
+  public JsonObject outboxStats() {
+    // depths keep changing, so sort on a snapshot of them.
+    Map<User, Integer> depths = new HashMap<>();
+    members.values().forEach(m -> depths.put(m.user, m.user.pendingMessages()));
+    List<User> users = new ArrayList<>(depths.keySet());
+    users.sort(Comparator.comparing(depths::get, Comparator.reverseOrder()));
+    int queued = 0;
+    JsonArray slowest = new JsonArray();
+    for (User u : users) {
+      queued += depths.get(u);
+      if (slowest.size() < SLOWEST_USERS_SHOWN) {
+        slowest.add(u.outboxStats());
+      }
+    }
+    JsonObject j = new JsonObject();
+    j.addProperty("users", users.size());
+    j.addProperty("queued", queued);
+    j.add("slowest", slowest);
+    return j;
+  }
+
+
+  // every group with a mailbox is running, filling up, or about to, as of the
+  // last refreshGroups().
+  private int liveGroups() {
+    return mailboxes.size();
+  }
+
+
+  /**
+   * @return the number of disconnected users waiting to either come back or
+   *         expire.
+   */
+  public int pendingExpiries() {
+    return ExpiryService.shared().pending();
   }
 
 
@@ -67,20 +168,57 @@ public final class GCT {
    * @return the {@code Group} that {@code u} is in.
    */
   public Group groupForUser(User u) {
-    return userToUserGroup.get(u);
+    Member m = memberFor(u);
+    return m == null ? null : m.group;
   }
 
 
   /**
    * Indicate if the given {@code uuid} represents a user that is presently in
-   * any game held by this GCT.
+   * any game held by this GCT. Runs in constant time.
    *
    * @param uuid
    * @return true if this user is presently in any group in this GCT.
    */
   public boolean userIDIsValid(String uuid) {
-    return pending.stream().anyMatch(grp -> grp.hasUser(uuid))
-        || full.stream().anyMatch(grp -> grp.hasUser(uuid));
+    Member m = lookup(uuid);
+    return m != null && m.added;
+  }
+
+
+  /**
+   * Get the {@code User} identified by {@code uuid}, if that user is in a
+   * group held by this GCT or is waiting to be added to one. Runs in constant
+   * time.
+   *
+   * @param uuid
+   *          the user's identifier cookie
+   * @return the {@code User}, else {@code null}.
+   */
+  public User userForID(String uuid) {
+    Member m = lookup(uuid);
+    return m == null ? null : m.user;
+  }
+
+
+  // members of groups that have since been cleared (game over, expiry) are
+  // dropped the first time they're looked up.
+  private Member lookup(String uuid) {
+    if (uuid == null) {
+      return null;
+    }
+    Member m = members.get(uuid);
+    if (m != null && m.added && !m.group.hasUser(m.user)) {
+      unindex(uuid, m);
+      return null;
+    }
+    return m;
+  }
+
+
+  private Member memberFor(User u) {
+    Member m = lookup(u.getField(Networking.USER_IDENTIFIER));
+    return m != null && m.user == u ? m : null;
   }
 
 
@@ -89,19 +227,35 @@ public final class GCT {
    *         and in need of more users.
    */
   public JsonObject openGroups() {
-    refreshGroups();
     Collection<Group> list = new ArrayList<>();
-    pending.stream().filter(g -> !g.isEmpty())
-        .forEach(g -> list.add(new GroupView(g)));
+    openGroupList().forEach(g -> list.add(new GroupView(g)));
     Collection<Group> gr = Collections.unmodifiableCollection(list);
     JsonObject toRet = new JsonObject();
     toRet.add("groups", Networking.GSON.toJsonTree(gr));
-    boolean atLim = pending.size() + full.size() >= GAME_LIMIT;
-    toRet.addProperty("atLimit", atLim);
+    toRet.addProperty("atLimit", atLimit());
+    toRet.add("admission", admissionStats());
     return toRet;
   }
 
 
+  // the groups that are not full and have at least one user.
+  Collection<Group> openGroupList() {
+    refreshGroups();
+    Collection<Group> list = new ArrayList<>();
+    pending.stream().filter(g -> !g.isEmpty()).forEach(list::add);
+    return list;
+  }
+
+
+  /**
+   * @return true if a new game would not be admitted right now.
+   */
+  public boolean atLimit() {
+    refreshGroups();
+    return admission.atLimit(liveGroups());
+  }
+
+
   /**
    * @return a JsonObject representing the groups that are currently full, and
    *         not in need of more users.
@@ -120,9 +274,10 @@ public final class GCT {
 
   private void refreshGroups() {
     full.removeIf(g -> {
-      if (g.isEmpty())
+      if (g.isEmpty()) {
+        retire(g);
         return true;
-      else if (!g.isFull()) {
+      } else if (!g.isFull()) {
         pending.add(g);
         return true;
       }
@@ -130,9 +285,10 @@ public final class GCT {
     });
 
     pending.removeIf(g -> {
-      if (g.isEmpty())
+      if (g.isEmpty()) {
+        retire(g);
         return true;
-      else if (g.isFull()) {
+      } else if (g.isFull()) {
         full.add(g);
         return true;
       }
@@ -142,28 +298,138 @@ public final class GCT {
 
 
   /**
-   * Attempt to add a user, either to a currently non-full group, or to a new
-   * group if no such group is found by the GroupSelector. If {@code u} is
-   * already in a group, the add message is forwarded to that group, and the
-   * group can handle it accordingly. For example, if a {@code User} was
-   * previously marked as absent, the group can note that the user has returned.
+   * Queue {@code task} on the mailbox of the Group that {@code u} is in. If
+   * {@code u} is not in a Group yet, one is chosen by the GroupSelector first,
+   * so that every task for {@code u} lands, in order, on the same mailbox.
+   * Tasks for the same Group run one at a time; tasks for different Groups run
+   * in parallel. This method never waits for {@code task} to run.
+   *
+   * A user that would start a new Group is subject to admission control: it
+   * may be held back, and its task run once the load allows, or turned away.
+   *
+   * @param u
+   *          the {@code User} that the task is for.
+   * @param task
+   *          the task to run.
+   * @return false if no Group could be found for {@code u}, or it was turned
+   *         away.
+   */
+  public boolean submit(User u, Runnable task) {
+    Decision d = route(u, task, false);
+    return d == Decision.ADMIT || d == Decision.QUEUE;
+  }
+
+
+  // submit's work. Whether u would start a new Group is decided before any
+  // Group is built, so a user that isn't admitted costs no game. A user that
+  // was already held back and is held again keeps waiting without being told
+  // a second time. Returns null if no Group could be found for u.
+  private Decision route(User u, Runnable task, boolean held) {
+    Group group = groupForUser(u);
+    if (group == null) {
+      String uuid = u.getField(Networking.USER_IDENTIFIER);
+      if (uuid == null) {
+        return null; // can't route a user we can't identify.
+      }
+      // selection is serialized so that two users can't both be handed the
+      // last seat of a game by a stale view of pending.
+      synchronized (members) {
+        group = groupForUser(u);
+        if (group == null) {
+          Collection<Group> open = Collections.unmodifiableCollection(pending);
+          if (groupSelector.opensNewGroup(u, open)) {
+            refreshGroups(); // so games that have ended aren't counted.
+            Decision d = admission.admit(liveGroups(), waiting.size());
+            if (d == Decision.QUEUE) {
+              if (held) {
+                waiting.add(new Waiting(u, task));
+              } else {
+                hold(u, task);
+              }
+              return d;
+            } else if (d == Decision.REJECT) {
+              u.message(Networking.errorMessage("SERVER_BUSY"));
+              return d;
+            }
+          }
+          group = groupSelector.selectFor(u, open);
+          if (group == null) {
+            return null;
+          }
+          index(uuid, new Member(u, group));
+          if (!mailboxes.containsKey(group)) {
+            // game over and expiry clear a group from inside it, so have it
+            // say so, to retire it and update the lobby straight away.
+            Group cleared = group;
+            group.onClear(() -> filterGroup(cleared));
+            mailboxes.put(group, new Mailbox(scheduler));
+          }
+        }
+      }
+    }
+    long queuedAt = System.nanoTime();
+    admission.taskQueued();
+    mailboxes.computeIfAbsent(group, g -> new Mailbox(scheduler)).execute(() -> {
+      try {
+        task.run();
+      } finally {
+        admission.taskFinished(System.nanoTime() - queuedAt);
+      }
+    });
+    return Decision.ADMIT;
+  }
+
+
+  private void hold(User u, Runnable task) {
+    waiting.add(new Waiting(u, task));
+    u.message(new JsonObjectBuilder()
+        .addProperty(Networking.REQUEST_IDENTIFIER, "queued")
+        .addProperty("position", waiting.size())
+        .build());
+  }
+
+
+  // let held back users through, in order, for as long as there's room.
+  private void admitWaiting() {
+    synchronized (waiting) {
+      // a user held back again goes to the end, so only go round once.
+      for (int i = waiting.size(); i > 0 && !waiting.isEmpty()
+          && !atLimit(); i--) {
+        Waiting w = waiting.poll();
+        // a user turned away has already been told so.
+        if (w.user.session().isOpen() && route(w.user, w.task, true) == null) {
+          w.user.message(Networking.errorMessage("RESET"));
+        }
+      }
+    }
+  }
+
+
+  /**
+   * Add {@code u} to the Group it was assigned by {@link #submit}. If
+   * {@code u} is already in that group, the add message is forwarded to that
+   * group, and the group can handle it accordingly. For example, if a
+   * {@code User} was previously marked as absent, the group can note that the
+   * user has returned. Should be called from the Group's mailbox.
    *
    * @param u
    *          the {@code User} to add.
    * @return true if the addition succeeded.
    */
   public boolean add(User u) {
-    Group bestFit =
-        groupSelector.selectFor(u, Collections.unmodifiableCollection(pending));
-    if (bestFit == null) {
+    Member m = memberFor(u);
+    if (m == null) {
       return false;
     }
+    Group group = m.group;
+    if (!group.add(u)) { // filled up while u was waiting in the mailbox.
+      unindex(u.getField(Networking.USER_IDENTIFIER), m);
+      return false;
+    }
+    m.added = true;
 
-    userToUserGroup.put(u, bestFit);
-    bestFit.add(u);
-
-    format("User %s added to %s%n", u, bestFit);
-    filterGroup(bestFit);
+    format("User %s added to %s%n", u, group);
+    filterGroup(group);
     return true;
   }
 
@@ -179,13 +445,13 @@ public final class GCT {
    * @return true if the remove succeeded.
    */
   public boolean remove(User u) {
-    Group group = userToUserGroup.get(u);
-    if (group == null) {
+    Member m = memberFor(u);
+    if (m == null) {
       return false;
     }
-    group.remove(u);
-    userToUserGroup.remove(u);
-    filterGroup(group);
+    m.group.remove(u);
+    unindex(u.getField(Networking.USER_IDENTIFIER), m);
+    filterGroup(m.group);
     return true;
   }
 
@@ -201,7 +467,7 @@ public final class GCT {
    * @return boolean indicating the suceess of the message being processed.
    */
   public boolean message(User u, JsonObject j) {
-    Group group = userToUserGroup.get(u);
+    Group group = groupForUser(u);
     if (group == null) {
       return false;
     }
@@ -217,19 +483,88 @@ public final class GCT {
     } else if (g.isEmpty()) {
       pending.remove(g);
       full.remove(g);
+      retire(g);
     } else { // not full game, some players.
       pending.add(g);
       full.remove(g);
     }
-    GroupViewWebsocket.reportChange(openGroups());
+    GroupViewWebsocket.reportChange(g);
+  }
+
+
+  // route uuid to m's group, moving it out of any group it was routed to.
+  private void index(String uuid, Member m) {
+    Member old = members.put(uuid, m);
+    if (old != null && old.group != m.group) {
+      Set<String> ids = memberIDs.get(old.group);
+      if (ids != null) {
+        ids.remove(uuid);
+      }
+    }
+    memberIDs.computeIfAbsent(m.group, g -> new ConcurrentHashSet<>())
+        .add(uuid);
+  }
+
+
+  // stop routing uuid, if it is still routed by m.
+  private void unindex(String uuid, Member m) {
+    if (members.remove(uuid, m)) {
+      Set<String> ids = memberIDs.get(m.group);
+      if (ids != null) {
+        ids.remove(uuid);
+      }
+    }
+  }
+
+
+  // forget an emptied group, along with anyone still routed to it.
+  private void retire(Group g) {
+    mailboxes.remove(g);
+    Set<String> ids = memberIDs.remove(g);
+    if (ids != null) {
+      ids.forEach(id -> members.computeIfPresent(id,
+          (k, m) -> m.group == g ? null : m));
+    }
+  }
+
+
+  // a new-game request held back by admission control.
+  private static final class Waiting {
+
+    private final User     user;
+    private final Runnable task;
+
+
+    Waiting(User user, Runnable task) {
+      this.user = user;
+      this.task = task;
+    }
+  }
+
+
+  // an entry in the uuid index: the user, the group it was routed to, and
+  // whether it has been added to that group yet.
+  private static final class Member {
+
+    private final User       user;
+    private final Group      group;
+    private volatile boolean added;
+
+
+    Member(User user, Group group) {
+      this.user = user;
+      this.group = group;
+    }
   }
 
 
   public static class GCTBuilder {
 
-    private final String  webSocketRoute;
-    private String        groupViewRoute;
-    private GroupSelector groupSelector = new BasicGroupSelector();
+    private final String        webSocketRoute;
+    private String              groupViewRoute;
+    private GroupSelector       groupSelector = new BasicGroupSelector();
+    private AdmissionController admission     =
+        new AdmissionBuilder().build();
 
 
     public GCTBuilder(String route) {
@@ -249,6 +584,12 @@ public final class GCT {
     }
 
 
+    public GCTBuilder withAdmissionController(AdmissionController ac) {
+      this.admission = ac;
+      return this;
+    }
+
+
     public GCT build() {
       return new GCT(this);
     }
@@ -2,6 +2,7 @@ package edu.brown.cs.networking;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.function.Function;
 
 import com.google.gson.JsonObject;
 
@@ -99,12 +100,50 @@ public interface Group {
   void clear();
 
 
+  /**
+   * Have {@code callback} run each time this group is cleared, once it has
+   * been cleared, in place of any callback set before. The GCT uses this to
+   * retire a game as soon as it ends. A group that ignores it is only noticed
+   * to be empty the next time the GCT looks.
+   *
+   * @param callback
+   *          what to run after {@link #clear}
+   */
+  default void onClear(Runnable callback) {
+    // nothing by default.
+  }
+
+
   /**
    * @return all of the users that have currently connected sessions.
    */
   Collection<User> connectedUsers();
 
 
+  /**
+   * Send {@code message} to every connected user. It is serialized once, and
+   * the same frame goes to each of them.
+   *
+   * @param message
+   *          the message for everyone
+   * @return boolean indicating every user was sent the message.
+   */
+  boolean broadcast(JsonObject message);
+
+
+  /**
+   * Send {@code shared} to every connected user, serialized once, followed by
+   * whatever {@code personal} returns for that user.
+   *
+   * @param shared
+   *          the message for everyone, or null for none
+   * @param personal
+   *          the encoded message for one user, or null for none
+   * @return boolean indicating every user was sent their messages.
+   */
+  boolean broadcast(JsonObject shared, Function<User, Frame> personal);
+
+
   /**
    * optionally record a message from the user.
    *
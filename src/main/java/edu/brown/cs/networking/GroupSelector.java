@@ -26,4 +26,23 @@ public interface GroupSelector {
    */
   Group selectFor(User u, Collection<Group> coll);
 
+
+  /**
+   * Tell whether {@link #selectFor} would create a new Group for {@code u},
+   * without creating it. The GCT asks this first, so that a new Group is only
+   * built once it has been admitted.
+   *
+   * @param u
+   *          the new {@code User} for which to find or make a Group.
+   * @param coll
+   *          a collection of {@code Group}s that are pending (not full), given
+   *          by the GCT.
+   * @return true if {@code u} would be given a new Group. By default, true,
+   *         so that every user not yet in a Group is subject to admission
+   *         control.
+   */
+  default boolean opensNewGroup(User u, Collection<Group> coll) {
+    return true;
+  }
+
 }
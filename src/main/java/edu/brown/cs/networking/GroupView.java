@@ -2,6 +2,7 @@ package edu.brown.cs.networking;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.function.Function;
 
 import com.google.gson.JsonObject;
 import com.google.gson.annotations.SerializedName;
@@ -97,6 +98,21 @@ class GroupView implements Group {
   }
 
 
+  @Override
+  public boolean broadcast(JsonObject message) {
+    throw new UnsupportedOperationException(
+        "Can't send message to view of group");
+  }
+
+
+  @Override
+  public boolean broadcast(JsonObject shared,
+      Function<User, Frame> personal) {
+    throw new UnsupportedOperationException(
+        "Can't send message to view of group");
+  }
+
+
   @Override
   public void logMessage(Message m) {
     throw new UnsupportedOperationException(
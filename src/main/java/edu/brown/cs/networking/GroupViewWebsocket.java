@@ -3,22 +3,63 @@ package edu.brown.cs.networking;
 import static edu.brown.cs.networking.Util.format;
 
 import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import org.eclipse.jetty.util.ConcurrentHashSet;
 import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.WriteCallback;
 import org.eclipse.jetty.websocket.api.annotations.OnWebSocketClose;
 import org.eclipse.jetty.websocket.api.annotations.OnWebSocketConnect;
 import org.eclipse.jetty.websocket.api.annotations.OnWebSocketMessage;
 import org.eclipse.jetty.websocket.api.annotations.WebSocket;
 
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
-
+import com.google.gson.JsonPrimitive;
+
+/**
+ * Pushes the list of open groups to lobby viewers. A viewer gets the full list
+ * when it connects. After that, changes are coalesced over a short interval
+ * and sent as one delta frame (groups added, changed and removed), serialized
+ * once and shared by every viewer. Sends happen on the flushing thread, never
+ * on the thread that reported the change.
+ *
+ * @author ndemarco
+ */
 @WebSocket
 public class GroupViewWebsocket {
 
-  private static GCT          gct;
-  private static Set<Session> viewers = new HashSet<>();
+  private static final long                     FLUSH_INTERVAL_MS = 250;
+
+  private static GCT                            gct;
+  private static final Set<Session>             viewers           =
+      new ConcurrentHashSet<>();
+
+  private static final AtomicBoolean            flushScheduled    =
+      new AtomicBoolean(false);
+  private static final ScheduledExecutorService flusher           =
+      Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "lobby-flush");
+        t.setDaemon(true);
+        return t;
+      });
+
+  // what each viewer has been told about each open group, as serialized json.
+  // only touched by the flusher.
+  private static final Map<Group, String>       lastSent          =
+      new HashMap<>();
+  private static final Set<Group>               dirty             =
+      new ConcurrentHashSet<>();
 
 
   @OnWebSocketConnect
@@ -26,7 +67,7 @@ public class GroupViewWebsocket {
     format("Session %s opened connection to GroupView%n",
         session.getLocalAddress());
     viewers.add(session);
-    sendGroupsTo(session, gct.openGroups());
+    sendGroupsTo(session, gct.openGroups().toString());
   }
 
 
@@ -50,20 +91,88 @@ public class GroupViewWebsocket {
   }
 
 
-  private static void sendGroupsTo(Session s, JsonObject groups) {
-    try {
-      s.getRemote().sendString(groups.toString());
-    } catch (IOException e) {
-      format(
-          "Error sending change in groups to session %s. Doing nothing about it.%n",
-          s.getLocalAddress());
+  private static void sendGroupsTo(Session s, String frame) {
+    if (s.isOpen()) {
+      s.getRemote().sendString(frame, new WriteCallback() {
+
+        @Override
+        public void writeSuccess() {
+          // nothing to follow up on.
+        }
+
+
+        @Override
+        public void writeFailed(Throwable x) {
+          format("Failed to send groups to Session %s : %s%n",
+              s.getLocalAddress(), x.getMessage());
+        }
+      });
+    }
+  }
+
+
+  /**
+   * Note that {@code g} may have changed. Viewers hear about it, along with any
+   * other changes, at the end of the current interval. Returns immediately.
+   *
+   * @param g
+   *          the group that changed
+   */
+  public static void reportChange(Group g) {
+    dirty.add(g);
+    if (flushScheduled.compareAndSet(false, true)) {
+      ScheduledFuture<?> unused = flusher.schedule(GroupViewWebsocket::flush,
+          FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
     }
   }
 
 
-  public static void reportChange(JsonObject groups) {
+  private static void flush() {
+    flushScheduled.set(false);
+    Set<Group> changed = new HashSet<>(dirty);
+    dirty.removeAll(changed);
+
+    Collection<Group> open = gct.openGroupList();
+    JsonArray added = new JsonArray();
+    JsonArray updated = new JsonArray();
+    JsonArray removed = new JsonArray();
+    Map<Group, String> now = new HashMap<>();
+    for (Group g : open) {
+      String before = lastSent.get(g);
+      if (before != null && !changed.contains(g)) {
+        now.put(g, before);
+        continue;
+      }
+      JsonElement view = Networking.GSON.toJsonTree(new GroupView(g));
+      String json = view.toString();
+      now.put(g, json);
+      if (before == null) {
+        added.add(view);
+      } else if (!before.equals(json)) {
+        updated.add(view);
+      }
+    }
+    for (Group g : lastSent.keySet()) {
+      if (!now.containsKey(g)) {
+        removed.add(new JsonPrimitive(g.identifier()));
+      }
+    }
+    lastSent.clear();
+    lastSent.putAll(now);
+    if (added.size() == 0 && updated.size() == 0 && removed.size() == 0) {
+      return; // nothing a viewer can see has changed.
+    }
+
+    JsonObject delta = new JsonObject();
+    delta.addProperty("delta", true);
+    delta.add("added", added);
+    delta.add("changed", updated);
+    delta.add("removed", removed);
+    delta.addProperty("atLimit", gct.atLimit());
+    delta.add("admission", gct.admissionStats());
+    String frame = delta.toString();
     for (Session s : viewers) {
-      sendGroupsTo(s, groups);
+      sendGroupsTo(s, frame);
     }
   }
 
@@ -0,0 +1,72 @@
+package edu.brown.cs.networking;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * An ordered, non-blocking queue of tasks belonging to a single Group. Tasks
+ * given to a Mailbox run one at a time, in the order they were submitted, on a
+ * scheduler shared by every Mailbox. Independent Groups therefore make progress
+ * in parallel, while each Group still sees its own tasks serially. Submitting
+ * never waits for the task to run.
+ */
+class Mailbox implements Executor {
+
+  // tasks to run before yielding the scheduler thread to another Mailbox.
+  static final int              BATCH_SIZE = 32;
+
+  private final Queue<Runnable> tasks;
+  private final AtomicBoolean   scheduled;
+  private final Executor        scheduler;
+
+
+  public Mailbox(Executor scheduler) {
+    this.tasks = new ConcurrentLinkedQueue<>();
+    this.scheduled = new AtomicBoolean(false);
+    this.scheduler = scheduler;
+  }
+
+
+  /**
+   * Queue {@code task} to run after every task previously given to this
+   * Mailbox.
+   *
+   * @param task
+   *          the task to queue
+   */
+  @Override
+  public void execute(Runnable task) {
+    tasks.add(task);
+    schedule();
+  }
+
+
+  private void schedule() {
+    if (scheduled.compareAndSet(false, true)) {
+      scheduler.execute(this::drain);
+    }
+  }
+
+
+  private void drain() {
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      Runnable task = tasks.poll();
+      if (task == null) {
+        break;
+      }
+      try {
+        task.run();
+      } catch (RuntimeException e) {
+        // one bad task shouldn't wedge the whole group.
+        e.printStackTrace();
+      }
+    }
+    scheduled.set(false);
+    if (!tasks.isEmpty()) {
+      schedule();
+    }
+  }
+
+}
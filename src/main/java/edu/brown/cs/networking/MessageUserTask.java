@@ -26,6 +26,9 @@ class MessageUserTask implements Runnable {
       return; // do nothing else.
     }
     Group g = gct.groupForUser(u);
+    if (g == null) {
+      return; // u was turned away while this message waited in the mailbox.
+    }
     JsonObject j = null;
     try {
       j = Networking.GSON.fromJson(message, JsonObject.class);
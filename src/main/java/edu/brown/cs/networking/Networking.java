@@ -1,12 +1,12 @@
 package edu.brown.cs.networking;
 
-import java.util.Collections;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 
 // Convenience constants
@@ -19,6 +19,16 @@ public class Networking {
   public static final long       ONE_SECOND                  = 1000;
   public static final long       DISCONNECT_TIMEOUT          = ONE_SECOND * 60;
 
+  // platform or virtual threads for group mailboxes.
+  public static final ExecutionMode EXECUTION_MODE =
+      ExecutionMode.fromEnvironment();
+
+  // messages that may wait for a slow client, and what happens past that.
+  public static final int        OUTBOX_CAPACITY             =
+      Integer.getInteger("catan.outboxCapacity", 256);
+  static final Outbox.OverflowPolicy OUTBOX_OVERFLOW =
+      Outbox.OverflowPolicy.fromEnvironment();
+
   // to be used throughout the Networking package unless conflicts
   // exist with registerTypeAdapter
   public static final Gson       GSON                        = new GsonBuilder()
@@ -30,7 +40,7 @@ public class Networking {
   public static final JsonObject GAME_READY_MESSAGE          =
       new JsonObjectBuilder()
           .addProperty(REQUEST_IDENTIFIER, "disconnectedUsers")
-          .add("users", GSON.toJsonTree(Collections.emptyList()))
+          .add("users", new JsonArray())
           .addProperty("expiresAt", -1)
           .build();
 
@@ -0,0 +1,207 @@
+package edu.brown.cs.networking;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Locale;
+
+import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.StatusCode;
+import org.eclipse.jetty.websocket.api.WriteCallback;
+
+import com.google.gson.JsonObject;
+
+/**
+ * The messages waiting to be written to one User's session. Callers never block
+ * on the socket: a message is queued and written later, one at a time, by
+ * Jetty's asynchronous send. The queue is bounded; when a client reads too
+ * slowly to keep up, the {@link OverflowPolicy} decides what gives.
+ */
+final class Outbox {
+
+  /**
+   * What to do when a message arrives and the outbox is full.
+   */
+  enum OverflowPolicy {
+    // forget the oldest waiting message to make room.
+    DROP_OLDEST,
+    // close the session, treating the client as disconnected.
+    DISCONNECT;
+
+    private static final String PROPERTY = "catan.outboxOverflow";
+
+
+    static OverflowPolicy fromEnvironment() {
+      String requested = System.getProperty(PROPERTY);
+      if (requested == null) {
+        return DROP_OLDEST;
+      }
+      try {
+        return valueOf(requested.trim().toUpperCase(Locale.ROOT));
+      } catch (IllegalArgumentException e) {
+        System.out.println("Unknown overflow policy " + requested
+            + ", using " + DROP_OLDEST);
+        return DROP_OLDEST;
+      }
+    }
+  }
+
+  // weight of the newest sample in the send latency moving average.
+  private static final double  LATENCY_WEIGHT = 0.1;
+  private static final double  NANOS_PER_MS   = 1e6;
+
+  private final User           owner;
+  private final int            capacity;
+  private final OverflowPolicy policy;
+  private final Deque<Pending> queue;
+  private boolean              sending;
+  private long                 latencyNanos;
+  private int                  maxDepth;
+  private int                  sent;
+  private int                  dropped;
+
+
+  Outbox(User owner, int capacity, OverflowPolicy policy) {
+    this.owner = owner;
+    this.capacity = capacity;
+    this.policy = policy;
+    this.queue = new ArrayDeque<>();
+  }
+
+
+  /**
+   * Queue {@code message} for the owner's session.
+   *
+   * @param message
+   *          the serialized message
+   * @return false if the message was refused.
+   */
+  boolean offer(String message) {
+    Session s = owner.session();
+    if (s == null || !s.isOpen()) {
+      return false;
+    }
+    boolean tooSlow = false;
+    synchronized (this) {
+      if (queue.size() >= capacity && policy == OverflowPolicy.DISCONNECT) {
+        dropped += queue.size() + 1;
+        queue.clear();
+        tooSlow = true;
+      } else {
+        if (queue.size() >= capacity) {
+          dropOldest();
+        }
+        queue.add(new Pending(message));
+        maxDepth = Math.max(maxDepth, queue.size());
+        if (sending) {
+          return true;
+        }
+        sending = true;
+      }
+    }
+    if (tooSlow) {
+      s.close(StatusCode.POLICY_VIOLATION, "Client too slow");
+      return false;
+    }
+    sendNext();
+    return true;
+  }
+
+
+  // the head may already be on the wire, in which case the next one goes.
+  private void dropOldest() {
+    Pending head = queue.poll();
+    if (sending && head != null && queue.poll() != null) {
+      queue.addFirst(head);
+    }
+    dropped++;
+  }
+
+
+  // write the head of the queue; its callback writes the next one.
+  private void sendNext() {
+    Pending p;
+    Session s = owner.session();
+    synchronized (this) {
+      p = queue.peek();
+      if (p == null) {
+        sending = false;
+        return;
+      }
+      if (s == null || !s.isOpen()) {
+        dropped += queue.size();
+        queue.clear();
+        sending = false;
+        return;
+      }
+    }
+    s.getRemote().sendString(p.message, new WriteCallback() {
+
+      @Override
+      public void writeSuccess() {
+        finished(p, true);
+      }
+
+
+      @Override
+      public void writeFailed(Throwable x) {
+        Util.format("Failed to send message to Session %s : %s%n",
+            s.getLocalAddress(), x.getMessage());
+        finished(p, false);
+      }
+    });
+  }
+
+
+  private void finished(Pending p, boolean success) {
+    synchronized (this) {
+      if (queue.peek() == p) {
+        queue.poll();
+      }
+      if (success) {
+        long nanos = System.nanoTime() - p.queuedAt;
+        latencyNanos = latencyNanos == 0 ? nanos
+            : (long) (latencyNanos + LATENCY_WEIGHT * (nanos - latencyNanos));
+        sent++;
+      } else {
+        dropped++;
+      }
+    }
+    sendNext();
+  }
+
+
+  /**
+   * @return the number of messages waiting to be written.
+   */
+  synchronized int depth() {
+    return queue.size();
+  }
+
+
+  /**
+   * @return queue depth, send latency and counts for this outbox, as Json.
+   */
+  synchronized JsonObject asJson() {
+    JsonObject j = new JsonObject();
+    j.addProperty("depth", queue.size());
+    j.addProperty("maxDepth", maxDepth);
+    j.addProperty("latencyMillis", latencyNanos / NANOS_PER_MS);
+    j.addProperty("sent", sent);
+    j.addProperty("dropped", dropped);
+    return j;
+  }
+
+
+  private static final class Pending {
+
+    private final String message;
+    private final long   queuedAt;
+
+
+    Pending(String message) {
+      this.message = message;
+      this.queuedAt = System.nanoTime();
+    }
+  }
+
+}
@@ -5,13 +5,7 @@ import static edu.brown.cs.networking.Util.print;
 import java.io.IOException;
 import java.net.HttpCookie;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 import org.eclipse.jetty.util.ConcurrentHashSet;
@@ -26,15 +20,11 @@ import com.google.gson.JsonObject;
 @WebSocket
 public class ReceivingWebsocket {
 
-  private final ExecutorService   threadPool;
-  private final Map<String, User> uuidToUser;
-  private final Set<Session>      ignoreSession;
-  private static GCT              gct;
+  private final Set<Session> ignoreSession;
+  private static GCT         gct;
 
 
   public ReceivingWebsocket() {
-    threadPool = Executors.newFixedThreadPool(8);
-    uuidToUser = new ConcurrentHashMap<>();
     ignoreSession = new ConcurrentHashSet<>();
   }
 
@@ -60,13 +50,10 @@ public class ReceivingWebsocket {
     } else {
       u = createNewUser(s);
     }
-    Future<?> f = threadPool.submit(new ConnectUserTask(u, gct));
-    try {
-      f.get(); // blocks!
-    } catch (InterruptedException | ExecutionException e) {
-      e.printStackTrace();
+    if (!gct.submit(u, new ConnectUserTask(u, gct))) {
+      // bad parameters, need to reset the user.
+      u.message(Networking.errorMessage("RESET"));
     }
-
   }
 
 
@@ -82,16 +69,9 @@ public class ReceivingWebsocket {
                                 // new
       return false;
     }
-    String candidateID = candidates.get(0).getValue();
-    if (!uuidToUser.containsKey(candidateID)) { // if we've never seen it
-                                                // before, it is expired.
-      return true;
-    }
-    // we know they have an ID, I've seen it before, we need to check with GCT
-    // if it is active.
-    return !gct.userIDIsValid(candidateID);
-
-
+    // they have an ID, so we need to check with GCT if it is active. IDs it
+    // has never seen, or has since forgotten, are expired.
+    return !gct.userIDIsValid(candidates.get(0).getValue());
   }
 
 
@@ -102,7 +82,6 @@ public class ReceivingWebsocket {
     cookies.add(new HttpCookie(Networking.USER_IDENTIFIER, id));
 
     User u = new User(s);
-    uuidToUser.put(id, u);
     setCookie(u, cookies);
     return u;
   }
@@ -136,22 +115,14 @@ public class ReceivingWebsocket {
       ignoreSession.remove(s);
       return;
     }
-    User u = userForSession(s);
+    User u = routedUserForSession(s);
     if (u == null) {
       System.out
           .println("Disconnected user we've never seen before. Do nothing");
       return; // do nothing with a disconnected user we've never seen.
     }
 
-    Future<?> f =
-        threadPool.submit(new DisconnectUserTask(u, statusCode, reason, gct));
-    try {
-      f.get();
-
-    } catch (InterruptedException | ExecutionException e) {
-      // TODO Auto-generated catch block
-      e.printStackTrace();
-    }
+    gct.submit(u, new DisconnectUserTask(u, statusCode, reason, gct));
   }
 
 
@@ -161,22 +132,17 @@ public class ReceivingWebsocket {
       return; // ignore messages from duplicate sessions
     }
     System.out.println(msg);
-    User u = userForSession(s);
+    User u = routedUserForSession(s);
     if (u == null) {
       System.out
           .println("Message from user we've never seen before. Ignoring.");
       return; // do nothing with an unfamiliar session
     }
-    Future<?> f = threadPool.submit(new MessageUserTask(u, msg, gct));
-    try {
-      f.get();
-    } catch (InterruptedException | ExecutionException e) {
-      e.printStackTrace();
-    }
+    gct.submit(u, new MessageUserTask(u, msg, gct));
   }
 
 
-  private User userForSession(Session s) {
+  private String idForSession(Session s) {
     List<HttpCookie> list = s.getUpgradeRequest().getCookies().stream()
         .filter(c -> c.getName()
             .equals(Networking.USER_IDENTIFIER))
@@ -189,15 +155,27 @@ public class ReceivingWebsocket {
     if (list.isEmpty()) {
       return null;
     }
+    return list.get(0).getValue();
+  }
 
-    if (gct.userIDIsValid(list.get(0).getValue())) {
-      return uuidToUser.get(list.get(0).getValue());
-    }
 
+  private User userForSession(Session s) {
+    String id = idForSession(s);
+    if (id != null && gct.userIDIsValid(id)) {
+      return gct.userForID(id);
+    }
     return null;
   }
 
 
+  // A user whose connect is still waiting in its group's mailbox isn't valid
+  // yet, but it has been routed, and its messages must queue up behind the
+  // connect rather than be dropped.
+  private User routedUserForSession(Session s) {
+    return gct.userForID(idForSession(s));
+  }
+
+
   public static void setGct(GCT gctToSet) {
     gct = gctToSet;
   }
@@ -1,8 +1,5 @@
 package edu.brown.cs.networking;
 
-import static edu.brown.cs.networking.Util.format;
-
-import java.io.IOException;
 import java.net.HttpCookie;
 
 import org.eclipse.jetty.websocket.api.Session;
@@ -20,10 +17,11 @@ import com.google.gson.annotations.Expose;
  */
 public final class User {
 
-  private Session    session;
+  private Session      session;
   @Expose
-  private Integer    userID;
-  private JsonObject values;
+  private Integer      userID;
+  private JsonObject   values;
+  private final Outbox outbox;
 
 
   /**
@@ -33,6 +31,8 @@ public final class User {
    *          the session
    */
   public User(Session s) {
+    outbox = new Outbox(this, Networking.OUTBOX_CAPACITY,
+        Networking.OUTBOX_OVERFLOW);
     updateSession(s);
   }
 
@@ -67,23 +67,45 @@ public final class User {
 
 
   /**
-   * Send a message TO this User's currently active session.
+   * Send a message TO this User's currently active session. The message is
+   * queued and written asynchronously, so this never blocks on the socket.
    *
    * @param json
    *          the message to send
-   * @return boolean indicating success.
+   * @return boolean indicating the message was queued.
    */
   public boolean message(JsonObject json) {
-    if (session.isOpen()) {
-      try {
-        session.getRemote().sendString(json.toString());
-        return true;
-      } catch (IOException e) {
-        format("Failed to send message to Session %s : %s%n",
-            userID(), json.toString());
-      }
-    }
-    return false;
+    return message(Frame.of(json));
+  }
+
+
+  /**
+   * Send an already encoded message TO this User's currently active session.
+   *
+   * @param frame
+   *          the message to send
+   * @return boolean indicating the message was queued.
+   */
+  public boolean message(Frame frame) {
+    return outbox.offer(frame.text());
+  }
+
+
+  /**
+   * @return the number of messages queued for this User but not yet written.
+   */
+  public int pendingMessages() {
+    return outbox.depth();
+  }
+
+
+  /**
+   * @return queue depth, send latency and message counts for this User.
+   */
+  public JsonObject outboxStats() {
+    JsonObject j = outbox.asJson();
+    j.addProperty("userID", String.valueOf(userID));
+    return j;
   }
 
 
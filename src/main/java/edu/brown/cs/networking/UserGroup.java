@@ -8,6 +8,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Queue;
+import java.util.function.Function;
 
 import com.google.common.collect.EvictingQueue;
 import com.google.gson.JsonObject;
@@ -18,6 +19,7 @@ public class UserGroup implements Group {
   private API                    api;
   private final UserGroupBuilder myBuilder;
   private final Queue<Message>   messageLog;
+  private volatile Runnable      onClear      = () -> {};
 
   private static final int       MAX_CHAT_LOG = 10;
 
@@ -65,11 +67,7 @@ public class UserGroup implements Group {
       u.setUserID(api.addPlayer(u.getFieldsAsJson()));
       table.addUser(u);
 
-      for (User other : table.users()) {
-        JsonObject gs = api.getGameState(other.userID());
-        gs.addProperty(Networking.REQUEST_IDENTIFIER, "getGameState");
-        other.message(gs);
-      }
+      broadcast(null, other -> api.getGameState(other.userID()));
       if (isFull()) {
         handleMessage(u, Networking.START_GAME_MESSAGE);
         print("Game start called: " + identifier());
@@ -100,7 +98,20 @@ public class UserGroup implements Group {
    */
   @Override
   public void clear() {
-    table.clear();
+    synchronized (this) {
+      table.onlyDisconnectedUsers().forEach(ExpiryService.shared()::cancel);
+      table.clear();
+    }
+    onClear.run();
+  }
+
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void onClear(Runnable callback) {
+    this.onClear = callback;
   }
 
 
@@ -139,7 +150,7 @@ public class UserGroup implements Group {
     JsonObject message =
         Networking.userDisconnectedMessage(
             Collections.unmodifiableMap(table.afkMap()));
-    table.onlyConnectedUsers().stream().forEach(u -> u.message(message));
+    broadcast(message);
     return false;
   }
 
@@ -149,9 +160,7 @@ public class UserGroup implements Group {
    */
   @Override
   public boolean hasUser(User u) {
-    boolean ret = table.contains(u);
-    System.out.println("hasUser? : " + ret);
-    return ret;
+    return table.contains(u);
   }
 
 
@@ -182,27 +191,72 @@ public class UserGroup implements Group {
   }
 
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean broadcast(JsonObject message) {
+    return broadcast(message, u -> null);
+  }
+
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean broadcast(JsonObject shared,
+      Function<User, Frame> personal) {
+    synchronized (this) {
+      Frame frame = shared == null ? null : Frame.of(shared);
+      boolean success = true;
+      for (User u : table.onlyConnectedUsers()) {
+        if (frame != null) {
+          success &= u.message(frame);
+        }
+        Frame mine = personal.apply(u);
+        if (mine != null) {
+          success &= u.message(mine);
+        }
+      }
+      return success;
+    }
+  }
+
+
   private void userDisconnected(User u, long expiresAt) {
     if (!table.contains(u)) {
       return; // just ignore it.
     }
     print("DISCONNECTED AT " + expiresAt + " " + u);
     table.userAFK(u, expiresAt);
-    new Thread(new CleanupTask(u, table)).start();
+    ExpiryService.shared().schedule(u, expiresAt, () -> userExpired(u));
     allUsersConnectedWithMessage();
   }
 
 
+  // called by the ExpiryService once u has been gone too long.
+  private void userExpired(User u) {
+    synchronized (this) {
+      if (!table.isAfk(u)) {
+        return; // came back just in time.
+      }
+      print("User expired!");
+      broadcast(Networking.GAME_OVER_DISCONNECTED_USER);
+      clear();
+    }
+  }
+
+
   private boolean userReconnected(User u) {
     if (!table.isAfk(u)) {
       return false;
     }
     print("RECONNECTED " + u);
+    ExpiryService.shared().cancel(u);
     table.userNotAFK(u);
     if (this.allUsersConnectedWithMessage()) {
       print("SENDING READY TO GO MESSAGE");
-      table.users().stream()
-          .forEach(usr -> usr.message(Networking.GAME_READY_MESSAGE));
+      broadcast(Networking.GAME_READY_MESSAGE);
     }
     return true;
   }
@@ -253,42 +307,6 @@ public class UserGroup implements Group {
   }
 
 
-  public static class CleanupTask implements Runnable {
-
-    private User      u;
-    private UserTable table;
-
-
-    public CleanupTask(User u, UserTable t) {
-      this.u = u;
-      this.table = t;
-    }
-
-
-    @Override
-    public void run() {
-      while (true) {
-        try {
-          if (table.expired(u)) {
-            System.out.println("User expired!");
-            for (User u : table.onlyConnectedUsers()) {
-              u.message(Networking.GAME_OVER_DISCONNECTED_USER);
-            }
-            table.clear();
-            return;
-          } else {
-            Thread.sleep(1000);
-          }
-        } catch (ExpiredUserException | InterruptedException e) {
-          // thread consistency error, can just kill the thread.
-          return;
-        }
-
-      }
-    }
-  }
-
-
   // MARK: BUILDER --------------------------------------------------
 
   public static class UserGroupBuilder {
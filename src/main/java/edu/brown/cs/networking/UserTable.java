@@ -66,7 +66,6 @@ class UserTable {
 
 
   public boolean contains(String id) {
-    System.out.println(users);
     synchronized (this) {
       return users.stream()
           .anyMatch(u -> u.hasField(Networking.USER_IDENTIFIER)
@@ -1,15 +1,25 @@
 <#assign content>
 <#assign open = openGroups?eval>
 <#assign closed = closedGroups?eval>
+<#assign adm = admission?eval>
+<#assign out = outboxes?eval>
 
 <div class="container-fluid">
 	<div class="text-center">
 		<h2>Catan Statistics</h2>
 		<#if open.atLimit>
-		<h4>Game limit reached ($(limit))</h4>
+		<h4>Game limit reached (${limit})</h4>
 		<#else>
 		<h4>Not at game limit (${limit})</h4>
 		</#if>		
+		<h4>Live games: ${adm.liveGroups}, waiting to start: ${adm.waiting}<#if adm.overloaded> (overloaded)</#if></h4>
+		<p>Latency: ${adm.latencyMillis?string("0.0")} ms, heap: ${(adm.heapFraction * 100)?string("0")}%, queued tasks: ${adm.queueDepth}</p>
+		<p>New games admitted: ${adm.admitted}, queued: ${adm.queued}, rejected: ${adm.rejected} (last: ${adm.lastDecision})</p>
+		<h4>Disconnected users awaiting expiry: ${pendingExpiries}</h4>
+		<h4>Outbound messages queued: ${out.queued} across ${out.users} users</h4>
+		<#list out.slowest as o>
+		<p>User ${o.userID}: ${o.depth} queued (max ${o.maxDepth}), send latency ${o.latencyMillis?string("0.0")} ms, sent ${o.sent}, dropped ${o.dropped}</p>
+		</#list>
 	</div>
 	<div class="row">
 		<div class="col-xs-6">
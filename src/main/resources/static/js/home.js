@@ -63,8 +63,41 @@ webSocket.onmessage = function(msg) {
 	}
 
 	if (data.hasOwnProperty("groups")) {
-		createJoinableGameList(data.groups);
+		openGroups = {};
+		for (var i = 0; i < data.groups.length; i++) {
+			openGroups[data.groups[i].group.id] = data.groups[i];
+		}
+		createJoinableGameList(listOpenGroups());
+	} else if (data.delta) {
+		applyGroupDelta(data);
+		createJoinableGameList(listOpenGroups());
+	}
+}
+
+// Open groups by id, kept in sync with the server's delta updates
+var openGroups = {};
+
+/*
+ * Applies a lobby update containing only the groups that changed.
+ * @param delta - groups added, changed and removed since the last update
+ */
+function applyGroupDelta(delta) {
+	var updated = delta.added.concat(delta.changed);
+	for (var i = 0; i < updated.length; i++) {
+		openGroups[updated[i].group.id] = updated[i];
+	}
+	for (var j = 0; j < delta.removed.length; j++) {
+		delete openGroups[delta.removed[j]];
+	}
+}
+
+// Returns the open groups as a list
+function listOpenGroups() {
+	var list = [];
+	for ( var groupId in openGroups) {
+		list.push(openGroups[groupId]);
 	}
+	return list;
 }
 
 /*
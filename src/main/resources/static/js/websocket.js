@@ -61,7 +61,8 @@ $(".leave-game-btn").click(function(event) {
 
 function sendGetGameStateAction() {
 	var playersReq = {
-		requestType : "getGameState"
+		requestType : "getGameState",
+		boardHash : boardLayout !== null ? boardLayout.boardHash : null
 	};
 	webSocket.send(JSON.stringify(playersReq));
 }
@@ -292,8 +293,19 @@ webSocket.onmessage = function(msg) {
 		case "chat":
             handleChatResponse(data);
 			break;
+		case "boardLayout":
+			boardLayout = data;
+			break;
 		case "getGameState":
-			handleGetGameState(data);
+			if (boardLayout === null || boardLayout.boardHash !== data.boardHash) {
+				sendGetGameStateAction();
+				break;
+			}
+			gameState = data;
+			handleGetGameState(withBoardLayout(data));
+			break;
+		case "gameStatePatch":
+			handleGameStatePatch(data);
 			break;
 		case "action":
 			handleActionResponse(data);
@@ -313,6 +325,9 @@ webSocket.onmessage = function(msg) {
 		case "heartbeat":
 			// console.log("heartbeat acknowledged");
 			break;
+		case "queued":
+			console.log("Waiting for room to start the game, position " + data.position);
+			break;
 		default:
 			console.log("unsupported request type");
 			break;
@@ -572,6 +587,61 @@ function handleGetGameState(gameStateData) {
 	}
 }
 
+// The last full game state, kept current by applying patches to it
+var gameState = null;
+
+// The parts of the board that never change, sent once per session
+var boardLayout = null;
+
+/*
+ * Merges the layout of the board into a game state, which only holds what can
+ * change on the board, element by element.
+ * @param state - the game state, built on the current board layout
+ * @return a copy of the state with the full board
+ */
+function withBoardLayout(state) {
+	var full = $.extend({}, state);
+	full.board = {};
+	for ( var part in state.board) {
+		full.board[part] = [];
+		for (var i = 0; i < state.board[part].length; i++) {
+			full.board[part].push($.extend({}, boardLayout[part][i],
+					state.board[part][i]));
+		}
+	}
+	return full;
+}
+
+/*
+ * Applies a patch to the last game state and redraws. Patches only hold what
+ * changed; if one was missed, ask for the full state instead.
+ * @param patch - the changes since the game state with version patch.base
+ */
+function handleGameStatePatch(patch) {
+	if (gameState === null || gameState.version !== patch.base) {
+		sendGetGameStateAction();
+		return;
+	}
+
+	for ( var key in patch.set) {
+		gameState[key] = patch.set[key];
+	}
+	for (var i = 0; i < patch.unset.length; i++) {
+		delete gameState[patch.unset[i]];
+	}
+	for ( var part in patch.board) {
+		for ( var index in patch.board[part]) {
+			gameState.board[part][index] = patch.board[part][index];
+		}
+	}
+	gameState.version = patch.version;
+	if (boardLayout === null || boardLayout.boardHash !== gameState.boardHash) {
+		sendGetGameStateAction();
+		return;
+	}
+	handleGetGameState(withBoardLayout(gameState));
+}
+
 // Send message if enter is pressed in the input field
 id("message").addEventListener("keypress", function(e) {
 	if (e.keyCode === 13) {
@@ -622,6 +692,9 @@ function handleErrorFromSocket(data) {
 		case "DUPLICATE_TAB":
 			$("#duplicate-tab-modal").modal("show");
 			break;
+		case "SERVER_BUSY":
+			alert("The server is too busy to start a new game. Please try again shortly.");
+			break;
 		default:
 			console.log(data.description);
 		}
@@ -0,0 +1,77 @@
+package edu.brown.cs.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import edu.brown.cs.board.HexCoordinate;
+import edu.brown.cs.board.IntersectionCoordinate;
+import edu.brown.cs.catan.Resource;
+
+public class ActionCommandTest {
+
+  private static JsonObject parse(String json) {
+    return new JsonParser().parse(json).getAsJsonObject();
+  }
+
+  @Test
+  public void testBuildSettlement() {
+    ActionCommand command = ActionCommand.parse(parse("{action: "
+        + "buildSettlement, player: \"1\", coordinate: {"
+        + "coord1: {x: 0, y: 0, z: 0}, coord2: {x: 1, y: 0, z: 0},"
+        + "coord3: {x: 0, y: 1, z: 0}}}"));
+    assertEquals(1, command.getPlayerID());
+    assertEquals("buildSettlement", command.getAction());
+    assertEquals(new IntersectionCoordinate(new HexCoordinate(0, 0, 0),
+        new HexCoordinate(1, 0, 0), new HexCoordinate(0, 1, 0)),
+        command.getCoordinate());
+  }
+
+  @Test
+  public void testTrades() {
+    ActionCommand trade = ActionCommand.parse(parse("{action: proposeTrade, "
+        + "player: 0, trade: {brick: 1, ore: -2}}"));
+    assertEquals(1.0, trade.getResources().get(Resource.BRICK), 0);
+    assertEquals(-2.0, trade.getResources().get(Resource.ORE), 0);
+    assertNull(trade.getResources().get(Resource.WOOD));
+
+    ActionCommand bank = ActionCommand.parse(parse("{action: tradeWithBank, "
+        + "player: 0, toGive: wheat, toGet: ore, amount: 1}"));
+    assertEquals(Resource.WHEAT, bank.getToGive());
+    assertEquals(Resource.ORE, bank.getToGet());
+    assertEquals(1.0, bank.getAmount(), 0);
+  }
+
+  @Test
+  public void testFollowUpKeepsParams() {
+    JsonObject json = parse("{action: dropCards, player: 0, toDrop: {}}");
+    assertEquals(json, ActionCommand.parse(json).getParams());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMissingCoordinate() {
+    ActionCommand.parse(parse("{action: buildCity, player: 0}"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMalformedCoordinate() {
+    ActionCommand.parse(parse("{action: buildRoad, player: 0, start: 3, "
+        + "end: 4}"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnknownResource() {
+    ActionCommand.parse(parse("{action: tradeWithBank, player: 0, "
+        + "toGive: gold, toGet: ore, amount: 1}"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMissingAction() {
+    ActionCommand.parse("{player: 0}");
+  }
+
+}
@@ -1,9 +1,14 @@
 package edu.brown.cs.api;
 
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import org.junit.Test;
 
+import com.google.gson.JsonObject;
+
 // System Tests
 public class CatanAPITest {
 
@@ -14,4 +19,20 @@ public class CatanAPITest {
     assertTrue(api != null);
   }
 
+  @Test
+  public void testGameStateCachedUntilChange() {
+    CatanAPI api = new CatanAPI();
+    JsonObject alice = new JsonObject();
+    alice.addProperty("userName", "Alice");
+    int id = api.addPlayer(alice);
+    String first = api.getGameState(id).text();
+    assertSame(first, api.getGameState(id).text());
+    assertNull(api.getGameStateUpdate(id));
+
+    JsonObject bob = new JsonObject();
+    bob.addProperty("userName", "Bob");
+    api.addPlayer(bob);
+    assertNotSame(first, api.getGameState(id).text());
+  }
+
 }
@@ -1,5 +1,129 @@
 package edu.brown.cs.api;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.Iterator;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import edu.brown.cs.board.Intersection;
+import edu.brown.cs.board.Path;
+import edu.brown.cs.catan.DevelopmentCard;
+import edu.brown.cs.catan.MasterReferee;
+import edu.brown.cs.catan.Player;
+import edu.brown.cs.catan.Referee;
+import edu.brown.cs.catan.Resource;
+
 public class CatanConverterTest {
 
+  private static JsonObject parse(String json) {
+    return new JsonParser().parse(json).getAsJsonObject();
+  }
+
+  // the state with the layout merged into its board, as a client does it.
+  private static JsonObject merge(BoardLayout layout, String state) {
+    JsonObject merged = parse(state);
+    JsonObject full = parse(layout.message());
+    assertEquals(full.get("boardHash"), merged.remove("boardHash"));
+    JsonObject board = merged.getAsJsonObject("board");
+    for (Map.Entry<String, JsonElement> part : board.entrySet()) {
+      JsonArray statics = full.getAsJsonArray(part.getKey());
+      JsonArray overlays = part.getValue().getAsJsonArray();
+      assertEquals(statics.size(), overlays.size());
+      for (int i = 0; i < overlays.size(); i++) {
+        for (Map.Entry<String, JsonElement> e : statics.get(i)
+            .getAsJsonObject().entrySet()) {
+          overlays.get(i).getAsJsonObject().add(e.getKey(), e.getValue());
+        }
+      }
+    }
+    return merged;
+  }
+
+  private static void assertSameState(Referee ref, int playerID) {
+    CatanConverter converter = new CatanConverter();
+    BoardLayout layout = converter.encodeLayout(ref.getBoard());
+    assertEquals(GameStateTree.build(ref, playerID), merge(layout,
+        converter.encodeGameState(converter.encodePublicState(ref, layout),
+            ref, playerID).toJson()));
+  }
+
+  @Test
+  public void testEncodedWaitingGame() {
+    Referee ref = new MasterReferee();
+    ref.addPlayer("Alice", "#BF2720");
+    assertSameState(ref, 0);
+  }
+
+  @Test
+  public void testEncodedGameInPlay() {
+    Referee ref = new MasterReferee();
+    int alice = ref.addPlayer("Alice", "#BF2720");
+    int bob = ref.addPlayer("Bob", "#115EC9");
+    ref.startNextTurn();
+
+    Player p = ref.getPlayerByID(alice);
+    p.addResource(Resource.BRICK);
+    p.addResource(Resource.SHEEP);
+    p.addDevelopmentCard(DevelopmentCard.KNIGHT);
+    Iterator<Intersection> intersections = ref.getBoard().getIntersections()
+        .values().iterator();
+    intersections.next().placeSettlement(p);
+    intersections.next().placeSettlement(ref.getPlayerByID(bob));
+    Path path = ref.getBoard().getPaths().values().iterator().next();
+    path.placeRoad(p);
+
+    assertSameState(ref, alice);
+    assertSameState(ref, bob);
+  }
+
+  @Test
+  public void testPublicStateSharedBetweenPlayers() {
+    Referee ref = new MasterReferee();
+    int alice = ref.addPlayer("Alice", "#BF2720");
+    int bob = ref.addPlayer("Bob", "#115EC9");
+    ref.startNextTurn();
+    ref.getBoard().getIntersections().values().iterator().next()
+        .placeSettlement(ref.getPlayerByID(bob));
+
+    CatanConverter converter = new CatanConverter();
+    BoardLayout layout = converter.encodeLayout(ref.getBoard());
+    PublicGameState pub = converter.encodePublicState(ref, layout);
+    for (int id : new int[] {alice, bob}) {
+      assertEquals(GameStateTree.build(ref, id), merge(layout, converter
+          .encodeGameState(pub, ref, id).toJson()));
+    }
+  }
+
+  @Test
+  public void testLayoutUnchangedByPlay() {
+    Referee ref = new MasterReferee();
+    ref.addPlayer("Alice", "#BF2720");
+    ref.startNextTurn();
+    CatanConverter converter = new CatanConverter();
+    BoardLayout before = converter.encodeLayout(ref.getBoard());
+    ref.getBoard().getIntersections().values().iterator().next()
+        .placeSettlement(ref.getPlayerByID(0));
+    BoardLayout after = converter.encodeLayout(ref.getBoard());
+    assertEquals(before.hash(), after.hash());
+    assertEquals(before.message(), after.message());
+  }
+
+  @Test
+  public void testLayoutOnlySentWhenUnknown() {
+    CatanAPI api = new CatanAPI();
+    String layout = api.getStaticState(null).text();
+    String hash = parse(layout).get("boardHash").getAsString();
+    assertNull(api.getStaticState(hash));
+    assertNotNull(api.getStaticState("stale"));
+  }
+
 }
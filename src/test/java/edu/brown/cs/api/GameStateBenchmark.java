@@ -0,0 +1,97 @@
+package edu.brown.cs.api;
+
+import java.lang.management.ManagementFactory;
+import java.util.Iterator;
+import java.util.function.IntFunction;
+
+import edu.brown.cs.board.Intersection;
+import edu.brown.cs.board.Path;
+import edu.brown.cs.catan.MasterReferee;
+import edu.brown.cs.catan.Referee;
+
+/**
+ * Compares the ways of serializing a player's game state: building Raw objects
+ * and a Gson tree, then calling toString() on it; writing the JSON straight
+ * from the Referee; and doing that while sharing the public part of the state
+ * between all players and the board's layout between all states, as happens
+ * after an action. Reports time, bytes allocated and length per state.
+ *
+ * Not a unit test. Run after {@code mvn test-compile} with:
+ *
+ * <pre>
+ * java -cp target/classes:target/test-classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout) \
+ *     edu.brown.cs.api.GameStateBenchmark
+ * </pre>
+ */
+public final class GameStateBenchmark {
+
+  private static final int PLAYERS    = 4;
+  private static final int WARMUP     = 20_000;
+  private static final int ITERATIONS = 50_000;
+
+  private GameStateBenchmark() {}
+
+  public static void main(String[] args) {
+    Referee ref = midGame();
+    CatanConverter converter = new CatanConverter();
+    System.out.format("%-8s %12s %14s %10s%n", "path", "us/state",
+        "bytes/state", "length");
+    for (int round = 0; round < 2; round++) {
+      report("tree", id -> GameStateTree.build(ref, id).toString());
+      report("stream", id -> converter.encodeGameState(ref, id).toJson());
+      BoardLayout layout = converter.encodeLayout(ref.getBoard());
+      PublicGameState[] publicStates = new PublicGameState[1];
+      report("shared", id -> {
+        if (id == 0) {
+          publicStates[0] = converter.encodePublicState(ref, layout);
+        }
+        return converter.encodeGameState(publicStates[0], ref, id).toJson();
+      });
+    }
+  }
+
+  // a started game with some buildings and roads on the board.
+  private static Referee midGame() {
+    Referee ref = new MasterReferee();
+    for (int i = 0; i < PLAYERS; i++) {
+      ref.addPlayer("Player" + i, "#00000" + i);
+    }
+    ref.startNextTurn();
+    Iterator<Intersection> intersections = ref.getBoard().getIntersections()
+        .values().iterator();
+    Iterator<Path> paths = ref.getBoard().getPaths().values().iterator();
+    for (int i = 0; i < PLAYERS * 2; i++) {
+      intersections.next();
+      intersections.next().placeSettlement(ref.getPlayerByID(i % PLAYERS));
+      paths.next().placeRoad(ref.getPlayerByID(i % PLAYERS));
+    }
+    return ref;
+  }
+
+  private static void report(String name, IntFunction<String> serialize) {
+    int length = 0;
+    for (int i = 0; i < WARMUP; i++) {
+      length = serialize.apply(i % PLAYERS).length();
+    }
+    long bytesBefore = allocatedBytes();
+    long start = System.nanoTime();
+    for (int i = 0; i < ITERATIONS; i++) {
+      length = serialize.apply(i % PLAYERS).length();
+    }
+    long elapsed = System.nanoTime() - start;
+    long bytes = allocatedBytes() - bytesBefore;
+    System.out.format("%-8s %12.1f %14d %10d%n", name,
+        elapsed / 1e3 / ITERATIONS, bytes / ITERATIONS, length);
+  }
+
+  private static long allocatedBytes() {
+    java.lang.management.ThreadMXBean threads = ManagementFactory
+        .getThreadMXBean();
+    if (threads instanceof com.sun.management.ThreadMXBean) {
+      return ((com.sun.management.ThreadMXBean) threads)
+          .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+    return 0;
+  }
+
+}
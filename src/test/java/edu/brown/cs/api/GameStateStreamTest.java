@@ -0,0 +1,133 @@
+package edu.brown.cs.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import edu.brown.cs.catan.MasterReferee;
+import edu.brown.cs.catan.Referee;
+
+public class GameStateStreamTest {
+
+  private static JsonObject parse(String json) {
+    return new JsonParser().parse(json).getAsJsonObject();
+  }
+
+  // alternating field names and encoded values, plus a one-part board.
+  private static EncodedGameState state(List<String> intersections,
+      String... fields) {
+    Map<String, String> f = new LinkedHashMap<>();
+    for (int i = 0; i < fields.length; i += 2) {
+      f.put(fields[i], fields[i + 1]);
+    }
+    f.put(EncodedGameState.BOARD, null);
+    Map<String, List<String>> board = new LinkedHashMap<>();
+    board.put("intersections", intersections);
+    return new EncodedGameState(f, board);
+  }
+
+  private static EncodedGameState state(String... fields) {
+    return state(Arrays.asList("{}"), fields);
+  }
+
+  @Test
+  public void testFirstUpdateIsSnapshot() {
+    GameStateStream stream = new GameStateStream();
+    JsonObject sent = parse(stream.patch(0, state("currentTurn", "0")));
+    assertEquals("getGameState", sent.get("requestType").getAsString());
+    assertEquals(1, sent.get("version").getAsInt());
+    assertEquals(0, sent.get("currentTurn").getAsInt());
+    assertEquals(parse("{intersections: [{}]}"), sent.get("board"));
+  }
+
+  @Test
+  public void testUnchangedStateSendsNothing() {
+    GameStateStream stream = new GameStateStream();
+    stream.snapshot(0, state("currentTurn", "0", "hand", "{\"brick\":1}"));
+    assertNull(stream.patch(0,
+        state("currentTurn", "0", "hand", "{\"brick\":1}")));
+  }
+
+  @Test
+  public void testPatchHasOnlyChanges() {
+    GameStateStream stream = new GameStateStream();
+    stream.snapshot(0, state("currentTurn", "0", "hand", "{\"brick\":1}",
+        "followUp", "{\"actionName\":\"dropCards\"}"));
+    JsonObject patch = parse(stream.patch(0,
+        state("currentTurn", "1", "hand", "{\"brick\":1}")));
+    assertEquals("gameStatePatch", patch.get("requestType").getAsString());
+    assertEquals(1, patch.get("base").getAsInt());
+    assertEquals(2, patch.get("version").getAsInt());
+    JsonObject set = patch.getAsJsonObject("set");
+    assertEquals(1, set.get("currentTurn").getAsInt());
+    assertFalse(set.has("hand"));
+    assertEquals("followUp", patch.getAsJsonArray("unset").get(0)
+        .getAsString());
+  }
+
+  @Test
+  public void testBoardPatchedByIndex() {
+    GameStateStream stream = new GameStateStream();
+    stream.snapshot(0, state(Arrays.asList("{\"b\":1}", "{\"b\":2}")));
+    JsonObject patch = parse(stream.patch(0,
+        state(Arrays.asList("{\"b\":1}", "{\"b\":3}"))));
+    assertEquals(parse("{intersections: {\"1\": {b: 3}}}"),
+        patch.get("board"));
+    assertFalse(patch.getAsJsonObject("set").has("board"));
+  }
+
+  @Test
+  public void testBoardChangingShapeIsSentWhole() {
+    GameStateStream stream = new GameStateStream();
+    stream.snapshot(0, state(Arrays.asList("{\"b\":1}")));
+    JsonObject patch = parse(stream.patch(0,
+        state(Arrays.asList("{\"b\":1}", "{\"b\":2}"))));
+    assertEquals(parse("{intersections: [{b: 1}, {b: 2}]}"), patch
+        .getAsJsonObject("set").get("board"));
+    assertTrue(patch.getAsJsonObject("board").entrySet().isEmpty());
+  }
+
+  @Test
+  public void testVersionsArePerPlayer() {
+    GameStateStream stream = new GameStateStream();
+    stream.snapshot(0, state("currentTurn", "0"));
+    stream.snapshot(0, state("currentTurn", "0"));
+    assertEquals(1, parse(stream.snapshot(1, state("currentTurn", "0")))
+        .get("version").getAsInt());
+  }
+
+  @Test
+  public void testSameStateReusesSnapshot() {
+    GameStateStream stream = new GameStateStream();
+    EncodedGameState state = state("currentTurn", "0");
+    String first = stream.snapshot(0, state);
+    assertSame(first, stream.snapshot(0, state));
+    assertNull(stream.patch(0, state));
+    assertEquals(1, parse(first).get("version").getAsInt());
+  }
+
+  @Test
+  public void testRealStateUnchangedSendsNothing() {
+    Referee ref = new MasterReferee();
+    ref.addPlayer("Alice");
+    CatanConverter converter = new CatanConverter();
+    GameStateStream stream = new GameStateStream();
+    stream.snapshot(0, converter.encodeGameState(ref, 0));
+    assertNull(stream.patch(0, converter.encodeGameState(ref, 0)));
+    assertTrue(parse(stream.patch(1, converter.encodeGameState(ref, 0)))
+        .has("board"));
+  }
+
+}
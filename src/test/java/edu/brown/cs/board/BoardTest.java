@@ -1,10 +1,14 @@
 package edu.brown.cs.board;
 
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 import org.junit.Test;
 
@@ -245,4 +249,65 @@ public class BoardTest {
     assertTrue(b.longestPath(player) == 2);
   }
 
+  @Test
+  public void testSharedGeometry() {
+    Board b1 = new Board(new GameSettings());
+    Board b2 = new Board(new GameSettings());
+    Player player = new HumanPlayer(0, "", "");
+    for (IntersectionCoordinate coord : b1.getIntersections().keySet()) {
+      assertSame(coord, b2.getIntersections().get(coord).getPosition());
+      assertNotSame(b1.getIntersections().get(coord), b2.getIntersections()
+          .get(coord));
+    }
+    int ports = 0;
+    for (Intersection i : b1.getIntersections().values()) {
+      if (i.getPort() != null) {
+        ports++;
+      }
+    }
+    assertTrue(ports == 18);
+
+    IntersectionCoordinate coord = b1.getTopology().getIntersections().get(0)
+        .getPosition();
+    b1.getIntersections().get(coord).placeSettlement(player);
+    assertTrue(b1.getIntersections().get(coord).getBuilding() != null);
+    assertTrue(b2.getIntersections().get(coord).getBuilding() == null);
+    assertTrue(b2.getTopology().owner(0) == Topology.NONE);
+  }
+
+  @Test
+  public void testMoveRobber() {
+    Board b = new Board(new GameSettings());
+    HexCoordinate start = b.findRobber();
+    assertTrue(b.getTile(start).hasRobber());
+    assertTrue(b.getTile(start).getType() == TileType.DESERT);
+
+    HexCoordinate centre = new HexCoordinate(0, 0, 0);
+    Tile tile = b.getTile(centre);
+    Player player = new HumanPlayer(3, "", "");
+    tile.getIntersections().iterator().next().placeSettlement(player);
+    if (centre.equals(start)) {
+      centre = new HexCoordinate(1, 0, 0);
+      tile = b.getTile(centre);
+      tile.getIntersections().iterator().next().placeSettlement(player);
+    }
+    Set<Integer> players = b.moveRobber(centre);
+    assertTrue(players.size() == 1 && players.contains(3));
+    assertTrue(b.findRobber().equals(centre));
+    assertTrue(tile.hasRobber());
+    assertFalse(b.getTile(start).hasRobber());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMoveRobberSameTile() {
+    Board b = new Board(new GameSettings());
+    b.moveRobber(b.findRobber());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMoveRobberOffBoard() {
+    Board b = new Board(new GameSettings());
+    b.moveRobber(new HexCoordinate(9, 0, 0));
+  }
+
 }
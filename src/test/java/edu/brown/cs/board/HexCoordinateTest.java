@@ -63,4 +63,15 @@ public class HexCoordinateTest {
     assertTrue(p1.hashCode() == p2.hashCode());
   }
 
+  @Test
+  public void testKey() {
+    HexCoordinate cord1 = new HexCoordinate(2, 1, 2);
+    HexCoordinate cord2 = new HexCoordinate(1, 0, 1);
+    HexCoordinate cord3 = new HexCoordinate(1, 0, 2);
+    assertTrue(cord1.key() == cord2.key());
+    assertTrue(cord1.key() == HexCoordinate.key(1, 0, 1));
+    assertTrue(cord1.key() != cord3.key());
+    assertTrue(!cord1.equals(cord3));
+  }
+
 }
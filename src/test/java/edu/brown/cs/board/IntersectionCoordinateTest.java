@@ -1,9 +1,12 @@
 package edu.brown.cs.board;
 
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import org.junit.Test;
 
+import edu.brown.cs.catan.GameSettings;
+
 public class IntersectionCoordinateTest {
 
   @Test
@@ -52,4 +55,40 @@ public class IntersectionCoordinateTest {
     assertTrue(i1.hashCode() == i1.hashCode());
 
   }
+
+  @Test
+  public void testNotEquals() {
+    HexCoordinate h1 = new HexCoordinate(0, 0, 0);
+    HexCoordinate h2 = new HexCoordinate(0, 1, 0);
+    HexCoordinate h3 = new HexCoordinate(0, 0, -1);
+    HexCoordinate h4 = new HexCoordinate(1, 0, 0);
+    IntersectionCoordinate i1 = new IntersectionCoordinate(h1, h2, h3);
+    IntersectionCoordinate i2 = new IntersectionCoordinate(h1, h2, h4);
+    assertTrue(!i1.equals(i2));
+    assertTrue(!i2.equals(i1));
+  }
+
+  @Test
+  public void testInternedFromBoard() {
+    Board board = new Board(new GameSettings());
+    IntersectionCoordinate onBoard = board.getIntersections().keySet()
+        .iterator().next();
+    HexCoordinate c1 = onBoard.getCoord1();
+    HexCoordinate c2 = onBoard.getCoord2();
+    HexCoordinate c3 = onBoard.getCoord3();
+    // the tiles in another order, and written differently.
+    IntersectionCoordinate found = IntersectionCoordinate.of(c3.getX() + 1,
+        c3.getY() + 1, c3.getZ() + 1, c1.getX(), c1.getY(), c1.getZ(),
+        c2.getX(), c2.getY(), c2.getZ());
+    assertSame(onBoard, found);
+    assertSame(onBoard, new IntersectionCoordinate(c1, c2, c3).intern());
+  }
+
+  @Test
+  public void testOffBoardNotInterned() {
+    IntersectionCoordinate far = IntersectionCoordinate.of(100, 0, 0, 101, 0,
+        0, 100, 1, 0);
+    assertTrue(far.equals(new IntersectionCoordinate(new HexCoordinate(100, 0,
+        0), new HexCoordinate(101, 0, 0), new HexCoordinate(100, 1, 0))));
+  }
 }
@@ -0,0 +1,254 @@
+package edu.brown.cs.board;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import edu.brown.cs.board.Topology.Production;
+import edu.brown.cs.catan.GameSettings;
+import edu.brown.cs.catan.HumanPlayer;
+import edu.brown.cs.catan.Player;
+import edu.brown.cs.catan.Resource;
+
+public class TopologyTest {
+
+  @Test
+  public void testAdjacency() {
+    Board b = new Board(new GameSettings());
+    Topology t = b.getTopology();
+    assertEquals(54, t.getIntersections().size());
+    assertEquals(72, t.getPaths().size());
+    assertEquals(37, t.getTiles().size());
+
+    for (int i = 0; i < t.getIntersections().size(); i++) {
+      Intersection intersection = t.getIntersections().get(i);
+      assertEquals(intersection.getPaths().size(), t.degree(i));
+      Set<Path> paths = new HashSet<>();
+      for (int k = 0; k < t.degree(i); k++) {
+        int p = t.pathAt(i, k);
+        paths.add(t.getPaths().get(p));
+        assertSame(t.getIntersections().get(t.otherEnd(p, i)), t.getPaths()
+            .get(p).getOtherEnd(intersection));
+        assertTrue(t.start(p) == i || t.end(p) == i);
+      }
+      assertEquals(new HashSet<>(intersection.getPaths()), paths);
+      assertTrue(t.tileCount(i) > 0 && t.tileCount(i) <= 3);
+    }
+    for (int p = 0; p < t.getPaths().size(); p++) {
+      Path path = t.getPaths().get(p);
+      assertSame(t.getIntersections().get(t.start(p)), path.getStart());
+      assertSame(t.getIntersections().get(t.end(p)), path.getEnd());
+    }
+    for (int tile = 0; tile < t.getTiles().size(); tile++) {
+      for (int k = 0; k < t.cornerCount(tile); k++) {
+        int i = t.cornerAt(tile, k);
+        assertTrue(t.getTiles().get(tile).getIntersections()
+            .contains(t.getIntersections().get(i)));
+      }
+    }
+  }
+
+  @Test
+  public void testWritesThrough() {
+    Board b = new Board(new GameSettings());
+    Topology t = b.getTopology();
+    Player p1 = new HumanPlayer(1, "Player 1", "#ff0000");
+    Player p2 = new HumanPlayer(2, "Player 2", "#00ff00");
+
+    Intersection settlement = t.getIntersections().get(0);
+    assertTrue(t.canPlaceSettlement(0, 1, false));
+    assertFalse(t.canPlaceSettlement(0, 1, true));
+    settlement.placeSettlement(p1);
+    assertEquals(1, t.owner(0));
+    assertFalse(t.hasCity(0));
+    assertFalse(t.canPlaceSettlement(0, 2, false));
+    for (int k = 0; k < t.degree(0); k++) {
+      assertFalse(t.canPlaceSettlement(t.otherEnd(t.pathAt(0, k), 0), 2,
+          false));
+    }
+
+    int road = t.pathAt(0, 0);
+    Path path = t.getPaths().get(road);
+    assertTrue(path.canPlaceRoad(p1));
+    assertFalse(path.canPlaceRoad(p2));
+    path.placeRoad(p1);
+    assertEquals(1, t.roadOwner(road));
+    assertFalse(path.canPlaceRoad(p1));
+
+    // the road reaches past the free end, but not past someone else's town.
+    int end = t.otherEnd(road, 0);
+    for (int k = 0; k < t.degree(end); k++) {
+      int next = t.pathAt(end, k);
+      assertEquals(next != road, t.canPlaceRoad(next, 1));
+      assertFalse(t.canPlaceRoad(next, 2));
+    }
+
+    settlement.placeCity(p1);
+    assertTrue(t.hasCity(0));
+    assertEquals(1, t.owner(0));
+  }
+
+  @Test
+  public void testPlacementSpots() {
+    Random random = new Random(7);
+    for (int game = 0; game < 20; game++) {
+      Topology t = new Board(new GameSettings()).getTopology();
+      List<Player> players = new ArrayList<>();
+      for (int id = 0; id < 3; id++) {
+        players.add(new HumanPlayer(id, "Player " + id, "#ff0000"));
+      }
+      for (int move = 0; move < 60; move++) {
+        Player player = players.get(random.nextInt(players.size()));
+        if (random.nextInt(4) == 0) {
+          t.getIntersections().get(random.nextInt(t.getIntersections().size()))
+              .placeSettlement(player);
+        } else {
+          t.getPaths().get(random.nextInt(t.getPaths().size()))
+              .placeRoad(player);
+        }
+        for (Player each : players) {
+          assertSpots(t, each.getID());
+        }
+      }
+    }
+  }
+
+  // checks the kept spots against the rules worked out from scratch.
+  private static void assertSpots(Topology t, int playerID) {
+    boolean anyRoad = false;
+    for (int i = 0; i < t.getIntersections().size(); i++) {
+      boolean free = t.owner(i) == Topology.NONE;
+      boolean connected = false;
+      for (int k = 0; k < t.degree(i); k++) {
+        int p = t.pathAt(i, k);
+        free &= t.owner(t.otherEnd(p, i)) == Topology.NONE;
+        connected |= t.roadOwner(p) == playerID;
+      }
+      assertEquals(free, t.canPlaceSettlement(i, playerID, false));
+      assertEquals(free && connected, t.canPlaceSettlement(i, playerID, true));
+    }
+    for (int p = 0; p < t.getPaths().size(); p++) {
+      boolean legal = t.roadOwner(p) == Topology.NONE
+          && (reaches(t, t.start(p), playerID) || reaches(t, t.end(p),
+              playerID));
+      assertEquals(legal, t.canPlaceRoad(p, playerID));
+      anyRoad |= legal;
+    }
+    assertEquals(anyRoad, t.canPlaceAnyRoad(playerID));
+  }
+
+  private static boolean reaches(Topology t, int i, int playerID) {
+    if (t.owner(i) != Topology.NONE) {
+      return t.owner(i) == playerID;
+    }
+    for (int k = 0; k < t.degree(i); k++) {
+      if (t.roadOwner(t.pathAt(i, k)) == playerID) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // builds a settlement at intersection 0 and a road of the given length from
+  // it, returning the intersections along the road.
+  public static List<Integer> buildRoad(Topology t, Player player,
+      int length) {
+    List<Integer> walked = new ArrayList<>();
+    walked.add(0);
+    t.getIntersections().get(0).placeSettlement(player);
+    for (int step = 0; step < length; step++) {
+      int at = walked.get(walked.size() - 1);
+      for (int k = 0; k < t.degree(at); k++) {
+        int p = t.pathAt(at, k);
+        if (!walked.contains(t.otherEnd(p, at))) {
+          t.getPaths().get(p).placeRoad(player);
+          walked.add(t.otherEnd(p, at));
+          break;
+        }
+      }
+    }
+    assertEquals(length + 1, walked.size());
+    return walked;
+  }
+
+  @Test
+  public void testLongestRoad() {
+    Board b = new Board(new GameSettings());
+    Topology t = b.getTopology();
+    Player p1 = new HumanPlayer(1, "Player 1", "#ff0000");
+    Player p2 = new HumanPlayer(2, "Player 2", "#00ff00");
+    assertEquals(0, t.longestRoad(1));
+
+    int version = t.getRoadVersion();
+    List<Integer> road = buildRoad(t, p1, 5);
+    assertEquals(5, t.longestRoad(1));
+    assertEquals(5, b.longestPath(p1));
+    assertEquals(0, t.longestRoad(2));
+    assertTrue(t.getRoadVersion() != version);
+
+    // a settlement of someone else splits the road.
+    version = t.getRoadVersion();
+    t.getIntersections().get(road.get(2)).placeSettlement(p2);
+    assertEquals(3, t.longestRoad(1));
+    assertTrue(t.getRoadVersion() != version);
+
+    // the player's own settlement doesn't.
+    version = t.getRoadVersion();
+    t.getIntersections().get(road.get(4)).placeSettlement(p1);
+    assertEquals(3, t.longestRoad(1));
+    assertEquals(version, t.getRoadVersion());
+  }
+
+  @Test
+  public void testProduction() {
+    Board b = new Board(new GameSettings());
+    Topology t = b.getTopology();
+    Player p1 = new HumanPlayer(1, "Player 1", "#ff0000");
+    Player p2 = new HumanPlayer(2, "Player 2", "#00ff00");
+    int tile = 0;
+    while (t.getTiles().get(tile).getType().getType() == null) {
+      tile++;
+    }
+    Tile producing = t.getTiles().get(tile);
+    int roll = producing.getRollNumber();
+    Resource resource = producing.getType().getType();
+    Map<Integer, Integer> collected = new HashMap<>();
+    Production collect = (playerID, res, amount) -> {
+      if (res == resource) {
+        collected.merge(playerID, amount, Integer::sum);
+      }
+    };
+
+    t.getIntersections().get(t.cornerAt(tile, 0)).placeSettlement(p1);
+    t.getIntersections().get(t.cornerAt(tile, 3)).placeSettlement(p2);
+    t.getIntersections().get(t.cornerAt(tile, 3)).placeCity(p2);
+    t.produce(roll, collect);
+    assertTrue(collected.get(1) >= 1);
+    assertTrue(collected.get(2) >= 2);
+    int settlement = collected.get(1);
+    int city = collected.get(2);
+
+    // the robber stops the tile producing, and nothing else.
+    collected.clear();
+    b.moveRobber(producing.getCoordinate());
+    t.produce(roll, collect);
+    assertEquals(settlement - 1, (int) collected.getOrDefault(1, 0));
+    assertEquals(city - 2, (int) collected.getOrDefault(2, 0));
+
+    collected.clear();
+    t.produce(7, collect);
+    assertTrue(collected.isEmpty());
+  }
+
+}
@@ -1,6 +1,41 @@
 package edu.brown.cs.catan;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
 public class DynamicBankTest {
 
-  //TODO
+  private static final double DELTA = 1e-9;
+
+  @Test
+  public void testEmptySupply() {
+    Bank bank = new DynamicBank();
+    for (Resource r : Resource.values()) {
+      assertEquals(4.0, bank.getBankRate(r), DELTA);
+      assertEquals(2.0, bank.getPortRate(r), DELTA);
+      assertEquals(3.0, bank.getWildCardRate(r), DELTA);
+    }
+  }
+
+  @Test
+  public void testRatesFollowSupply() {
+    Bank bank = new DynamicBank();
+    int version = bank.getRatesVersion();
+    bank.getResource(Resource.BRICK, 4);
+    assertTrue(bank.getRatesVersion() != version);
+    // brick scores 4/3 of the most, the rest nothing.
+    assertEquals(4.6, bank.getBankRate(Resource.BRICK), DELTA);
+    assertEquals(2.3, bank.getPortRate(Resource.BRICK), DELTA);
+    assertEquals(3.5, bank.getWildCardRate(Resource.BRICK), DELTA);
+    assertEquals(3.4, bank.getBankRate(Resource.ORE), DELTA);
+    assertEquals(1.7, bank.getPortRate(Resource.ORE), DELTA);
+    assertEquals(2.6, bank.getWildCardRate(Resource.ORE), DELTA);
+
+    bank.discardResource(Resource.BRICK, 4);
+    assertEquals(4.0, bank.getBankRate(Resource.BRICK), DELTA);
+    assertEquals(4.0, bank.getBankRate(Resource.ORE), DELTA);
+  }
+
 }
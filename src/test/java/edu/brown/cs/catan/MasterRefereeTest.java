@@ -1,12 +1,23 @@
 package edu.brown.cs.catan;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import java.util.Collection;
+import java.util.Map;
+
 import org.junit.Test;
 
+import com.google.gson.JsonObject;
+
 import edu.brown.cs.board.HexCoordinate;
+import edu.brown.cs.board.Intersection;
 import edu.brown.cs.board.IntersectionCoordinate;
+import edu.brown.cs.board.Topology;
+import edu.brown.cs.board.TopologyTest;
 
 public class MasterRefereeTest {
 
@@ -73,6 +84,31 @@ public class MasterRefereeTest {
 
   }
 
+  @Test
+  public void testHasLongestRoad() {
+    Referee ref = new MasterReferee();
+    int id1 = ref.addPlayer("p1", "color");
+    int id2 = ref.addPlayer("p2", "color");
+    Topology t = ref.getBoard().getTopology();
+    assertFalse(ref.hasLongestRoad(id1));
+    TopologyTest.buildRoad(t, ref.getPlayerByID(id1),
+        Settings.LONGEST_ROAD_THRESH);
+    assertEquals(Settings.LONGEST_ROAD_THRESH, t.longestRoad(id1));
+    assertTrue(ref.hasLongestRoad(id1));
+    assertFalse(ref.hasLongestRoad(id2));
+  }
+
+  @Test
+  public void testShortRoadNotLongest() {
+    Referee ref = new MasterReferee();
+    int id1 = ref.addPlayer("p1", "color");
+    Topology t = ref.getBoard().getTopology();
+    TopologyTest.buildRoad(t, ref.getPlayerByID(id1),
+        Settings.LONGEST_ROAD_THRESH - 1);
+    assertEquals(Settings.LONGEST_ROAD_THRESH - 1, t.longestRoad(id1));
+    assertFalse(ref.hasLongestRoad(id1));
+  }
+
   @Test
   public void testHasLargestArmyComplicated() {
     Referee ref = new MasterReferee();
@@ -197,11 +233,65 @@ public class MasterRefereeTest {
 
   @Test
   public void getBankRatesWithWildCardPort() {
-    HexCoordinate h1 = new HexCoordinate(0, 2, 0);
-    HexCoordinate h2 = new HexCoordinate(0, 3, 0);
-    HexCoordinate h3 = new HexCoordinate(1, 3, 0);
-    IntersectionCoordinate i = new IntersectionCoordinate(h1, h2, h3);
-    //TODO: finsih port test
+    Referee ref = new MasterReferee();
+    int id1 = ref.addPlayer("Blah");
+    Map<Resource, Double> before = ref.getBankRates(id1);
+    assertSame(before, ref.getBankRates(id1));
+    Intersection port = null;
+    for (Intersection i : ref.getBoard().getIntersections().values()) {
+      if (i.getPort() != null
+          && i.getPort().getResource() == Resource.WILDCARD) {
+        port = i;
+      }
+    }
+    port.placeSettlement(ref.getPlayerByID(id1));
+    Map<Resource, Double> after = ref.getBankRates(id1);
+    assertNotSame(before, after);
+    assertTrue(ref.getBoard().getTopology().ports(id1)
+        .contains(Resource.WILDCARD));
+    assertTrue(after.get(Resource.BRICK).equals(Settings.WILDCARD_RATE));
+    assertTrue(after.get(Resource.SHEEP).equals(Settings.WILDCARD_RATE));
+  }
+
+  @Test
+  public void getBankRatesDynamicBank() {
+    JsonObject settings = new JsonObject();
+    settings.addProperty("isDecimal", true);
+    settings.addProperty("isDynamic", true);
+    Referee ref = new MasterReferee(new GameSettings(settings));
+    int id1 = ref.addPlayer("Blah");
+    Map<Resource, Double> before = ref.getBankRates(id1);
+    assertSame(before, ref.getBankRates(id1));
+    ref.getBank().getResource(Resource.BRICK, 4);
+    assertNotSame(before, ref.getBankRates(id1));
+  }
+
+  @Test
+  public void testReadOnlySnapshots() {
+    Referee ref = new MasterReferee();
+    Referee readOnly = ref.getReadOnlyReferee();
+    assertSame(readOnly, ref.getReadOnlyReferee());
+
+    int id1 = ref.addPlayer("Blah");
+    Collection<Player> players = readOnly.getPlayers();
+    assertSame(players, readOnly.getPlayers());
+    assertSame(players.iterator().next(), readOnly.getPlayerByID(id1));
+    ref.addPlayer("Blah 2");
+    assertNotSame(players, readOnly.getPlayers());
+    assertEquals(2, readOnly.getPlayers().size());
+
+    Turn turn = readOnly.getTurn();
+    assertSame(turn, readOnly.getTurn());
+    ref.playDevCard();
+    assertFalse(turn.devHasBeenPlayed());
+    assertNotSame(turn, readOnly.getTurn());
+    assertTrue(readOnly.getTurn().devHasBeenPlayed());
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testTurnSnapshotIsReadOnly() {
+    Referee ref = new MasterReferee();
+    ref.getReadOnlyReferee().getTurn().setDevCardHasBeenPlayed();
   }
 
 }
@@ -1,8 +1,136 @@
 package edu.brown.cs.graph;
 
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
 
 public class GraphsTest {
 
-  //TODO: add graph testing here...
+  private static final int TRIALS = 2000;
+  private static final int MAX_NODES = 8;
+  private static final int MAX_EDGES = 8;
+
+  // the longest sequence of distinct edges, each sharing a node with the one
+  // before, that doesn't pass through a closed node. Tries every sequence.
+  private static int bruteForce(int[] edgeEnds, boolean[] passableNodes) {
+    int best = 0;
+    for (int v = 0; v < passableNodes.length; v++) {
+      best = Math.max(best,
+          walk(v, 0, new boolean[edgeEnds.length / 2], edgeEnds,
+              passableNodes));
+    }
+    return best;
+  }
+
+  private static int walk(int v, int length, boolean[] usedEdges,
+      int[] edgeEnds, boolean[] passableNodes) {
+    if (length > 0 && !passableNodes[v]) {
+      return length;
+    }
+    int best = length;
+    for (int e = 0; e < usedEdges.length; e++) {
+      if (usedEdges[e]) {
+        continue;
+      }
+      int next;
+      if (edgeEnds[2 * e] == v) {
+        next = edgeEnds[2 * e + 1];
+      } else if (edgeEnds[2 * e + 1] == v) {
+        next = edgeEnds[2 * e];
+      } else {
+        continue;
+      }
+      usedEdges[e] = true;
+      best = Math.max(best,
+          walk(next, length + 1, usedEdges, edgeEnds, passableNodes));
+      usedEdges[e] = false;
+    }
+    return best;
+  }
+
+  @Test
+  public void testMatchesBruteForce() {
+    Random random = new Random(42);
+    for (int trial = 0; trial < TRIALS; trial++) {
+      int nodeCount = 1 + random.nextInt(MAX_NODES);
+      int[] edgeEnds = new int[2 * random.nextInt(MAX_EDGES + 1)];
+      for (int i = 0; i < edgeEnds.length; i++) {
+        edgeEnds[i] = random.nextInt(nodeCount);
+      }
+      boolean[] passableNodes = new boolean[nodeCount];
+      for (int v = 0; v < nodeCount; v++) {
+        passableNodes[v] = random.nextInt(4) != 0;
+      }
+      assertEquals(Arrays.toString(edgeEnds) + " "
+          + Arrays.toString(passableNodes),
+          bruteForce(edgeEnds, passableNodes),
+          Graphs.longestTrail(nodeCount, edgeEnds, passableNodes));
+    }
+  }
+
+  @Test
+  public void testNoEdges() {
+    assertEquals(0, Graphs.longestTrail(3, new int[0], null));
+    assertEquals(0, Graphs.longestTrail(0, new int[0], null));
+  }
+
+  @Test
+  public void testCycleWithTail() {
+    // a hexagon 0..5 with a tail 5-6-7.
+    int[] edgeEnds = { 0, 1, 1, 2, 2, 3, 3, 4, 4, 5, 5, 0, 5, 6, 6, 7 };
+    assertEquals(8, Graphs.longestTrail(8, edgeEnds, null));
+
+    // closing node 5 leaves the hexagon walked from 5 round to 5.
+    boolean[] passableNodes = new boolean[8];
+    Arrays.fill(passableNodes, true);
+    passableNodes[5] = false;
+    assertEquals(6, Graphs.longestTrail(8, edgeEnds, passableNodes));
+
+    // closing node 2 as well splits the hexagon.
+    passableNodes[2] = false;
+    assertEquals(3, Graphs.longestTrail(8, edgeEnds, passableNodes));
+  }
+
+  @Test
+  public void testComponents() {
+    // a path of 3 and a separate triangle.
+    int[] edgeEnds = { 0, 1, 1, 2, 2, 3, 4, 5, 5, 6, 6, 4 };
+    assertEquals(3, Graphs.longestTrail(7, edgeEnds, null));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testOddEnds() {
+    Graphs.longestTrail(2, new int[] { 0, 1, 1 }, null);
+  }
+
+  @Test
+  public void testNodes() {
+    DummyGraph graph = new DummyGraph();
+    // a square 0-1-2-3 with a diagonal 0-2 and a tail 3-4.
+    graph.addEdge(0, 1, 1);
+    graph.addEdge(1, 2, 1);
+    graph.addEdge(2, 3, 1);
+    graph.addEdge(3, 0, 1);
+    graph.addEdge(0, 2, 1);
+    graph.addEdge(3, 4, 1);
+    graph.addEdge(7, 8, 1);
+    // four odd nodes, so no trail uses every edge.
+    assertEquals(5, Graphs.longestTrail(
+        Arrays.asList(graph.getNodeFromID(1)), edge -> true, node -> true));
+    // only the edges reachable from the start are searched.
+    assertEquals(1, Graphs.longestTrail(
+        Arrays.asList(graph.getNodeFromID(8)), edge -> true, node -> true));
+    // through 0 is closed, so the trails that use 0 start or end there.
+    assertEquals(4, Graphs.longestTrail(
+        Arrays.asList(graph.getNodeFromID(1)), edge -> true,
+        node -> node.getData() != 0));
+    // without the edges at 3, it is the triangle 0-1-2.
+    assertEquals(3, Graphs.longestTrail(
+        Arrays.asList(graph.getNodeFromID(1)), edge -> edge.getNode1()
+            .getData() != 3 && edge.getNode2().getData() != 3, node -> true));
+  }
 
 }
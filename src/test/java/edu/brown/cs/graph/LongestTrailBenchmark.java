@@ -0,0 +1,117 @@
+package edu.brown.cs.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.IntSupplier;
+
+import edu.brown.cs.board.Board;
+import edu.brown.cs.board.Topology;
+import edu.brown.cs.catan.GameSettings;
+
+/**
+ * Times the longest trail search on road networks of a player's 15 roads on
+ * the real board: a single chain, which the search finishes on its first
+ * trail, and three hexagons around a shared corner, the densest network, where
+ * no trail uses every road and every trail has to be tried.
+ *
+ * Not a unit test. Run after {@code mvn test-compile} with:
+ *
+ * <pre>
+ * java -cp target/classes:target/test-classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout) \
+ *     edu.brown.cs.graph.LongestTrailBenchmark
+ * </pre>
+ */
+public final class LongestTrailBenchmark {
+
+  private static final int ROADS      = 15;
+  private static final int WARMUP     = 20_000;
+  private static final int ITERATIONS = 100_000;
+
+  private LongestTrailBenchmark() {}
+
+  public static void main(String[] args) {
+    Topology t = new Board(new GameSettings()).getTopology();
+    int nodeCount = t.getIntersections().size();
+    int[] chainEnds = chain(t);
+    int[] hexagonEnds = hexagons(t);
+    System.out.format("%-10s %8s %12s%n", "network", "length", "us/search");
+    for (int round = 0; round < 2; round++) {
+      report("chain", () -> Graphs.longestTrail(nodeCount, chainEnds, null));
+      report("hexagons",
+          () -> Graphs.longestTrail(nodeCount, hexagonEnds, null));
+    }
+  }
+
+  // a walk of ROADS paths that never comes back to an intersection.
+  private static int[] chain(Topology t) {
+    List<Integer> walked = new ArrayList<>();
+    for (int start = 0; walked.size() <= ROADS; start++) {
+      walked.clear();
+      walked.add(start);
+      boolean stuck = false;
+      while (walked.size() <= ROADS && !stuck) {
+        int at = walked.get(walked.size() - 1);
+        stuck = true;
+        for (int k = 0; k < t.degree(at) && stuck; k++) {
+          int next = t.otherEnd(t.pathAt(at, k), at);
+          if (!walked.contains(next)) {
+            walked.add(next);
+            stuck = false;
+          }
+        }
+      }
+    }
+    int[] edgeEnds = new int[2 * ROADS];
+    for (int r = 0; r < ROADS; r++) {
+      edgeEnds[2 * r] = walked.get(r);
+      edgeEnds[2 * r + 1] = walked.get(r + 1);
+    }
+    return edgeEnds;
+  }
+
+  // the edges of the three tiles around an inland intersection.
+  private static int[] hexagons(Topology t) {
+    int centre = 0;
+    while (t.tileCount(centre) < 3 || t.degree(centre) < 3) {
+      centre++;
+    }
+    Set<Integer> corners = new HashSet<>();
+    for (int k = 0; k < t.tileCount(centre); k++) {
+      int tile = t.tileAt(centre, k);
+      for (int c = 0; c < t.cornerCount(tile); c++) {
+        corners.add(t.cornerAt(tile, c));
+      }
+    }
+    List<Integer> ends = new ArrayList<>();
+    for (int p = 0; p < t.getPaths().size(); p++) {
+      if (corners.contains(t.start(p)) && corners.contains(t.end(p))) {
+        ends.add(t.start(p));
+        ends.add(t.end(p));
+      }
+    }
+    int[] edgeEnds = new int[ends.size()];
+    for (int i = 0; i < edgeEnds.length; i++) {
+      edgeEnds[i] = ends.get(i);
+    }
+    assert edgeEnds.length == 2 * ROADS : Arrays.toString(edgeEnds);
+    return edgeEnds;
+  }
+
+  private static void report(String name, IntSupplier search) {
+    int length = 0;
+    for (int i = 0; i < WARMUP; i++) {
+      length = search.getAsInt();
+    }
+    long start = System.nanoTime();
+    for (int i = 0; i < ITERATIONS; i++) {
+      length = search.getAsInt();
+    }
+    long elapsed = System.nanoTime() - start;
+    System.out.format("%-10s %8d %12.2f%n", name, length,
+        elapsed / 1e3 / ITERATIONS);
+  }
+
+}
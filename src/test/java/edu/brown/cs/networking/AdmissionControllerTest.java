@@ -0,0 +1,125 @@
+package edu.brown.cs.networking;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.google.gson.JsonObject;
+
+import edu.brown.cs.networking.AdmissionController.AdmissionBuilder;
+import edu.brown.cs.networking.AdmissionController.Decision;
+
+public class AdmissionControllerTest {
+
+  private static final long SLOW_NANOS = 10_000_000L; // 10ms
+  private static final long FAST_NANOS = 1_000L;
+
+
+  // never overloaded by the heap of the JVM running the tests.
+  private static AdmissionBuilder builder() {
+    return new AdmissionBuilder().withGroupRange(1, 2, 5)
+        .withMaxLatencyMillis(1).withMaxHeapFraction(1.0)
+        .withMaxQueueDepth(2).withMaxWaiting(2);
+  }
+
+
+  @Test
+  public void testAdmitsUnderLimit() {
+    AdmissionController ac = builder().build();
+    assertFalse(ac.overloaded());
+    assertEquals(2, ac.limit());
+    assertEquals(Decision.ADMIT, ac.admit(0, 0));
+    assertEquals(Decision.ADMIT, ac.admit(1, 0));
+    assertEquals(2, ac.limit());
+  }
+
+
+  @Test
+  public void testProbesUpToMax() {
+    AdmissionController ac = builder().build();
+    // at the limit but not overloaded, so the limit grows by one game.
+    assertEquals(Decision.ADMIT, ac.admit(2, 0));
+    assertEquals(3, ac.limit());
+    assertEquals(Decision.ADMIT, ac.admit(4, 0));
+    assertEquals(5, ac.limit());
+    // never past the maximum.
+    assertEquals(Decision.QUEUE, ac.admit(5, 0));
+    assertEquals(5, ac.limit());
+    assertTrue(ac.atLimit(5));
+    assertFalse(ac.atLimit(4));
+  }
+
+
+  @Test
+  public void testLatencyThreshold() {
+    AdmissionController ac = builder().build();
+    ac.taskQueued();
+    ac.taskFinished(SLOW_NANOS);
+    assertTrue(ac.overloaded());
+    assertEquals(Decision.QUEUE, ac.admit(2, 0));
+  }
+
+
+  @Test
+  public void testQueueDepthThreshold() {
+    AdmissionController ac = builder().build();
+    ac.taskQueued();
+    ac.taskQueued();
+    assertFalse(ac.overloaded());
+    ac.taskQueued();
+    assertTrue(ac.overloaded());
+    ac.taskFinished(FAST_NANOS);
+    assertFalse(ac.overloaded());
+  }
+
+
+  @Test
+  public void testHeapThreshold() {
+    AdmissionController ac = builder().withMaxHeapFraction(0.0).build();
+    assertTrue(ac.overloaded());
+    assertEquals(Decision.QUEUE, ac.admit(2, 0));
+  }
+
+
+  @Test
+  public void testLimitDropsToLiveGroups() {
+    AdmissionController ac = builder().withGroupRange(1, 4, 10).build();
+    for (int i = 0; i < 3; i++) {
+      ac.taskQueued();
+    }
+    assertTrue(ac.overloaded());
+    assertEquals(Decision.QUEUE, ac.admit(3, 0));
+    assertEquals(3, ac.limit());
+    assertTrue(ac.atLimit(3));
+    // never below the minimum.
+    assertEquals(Decision.ADMIT, ac.admit(0, 0));
+    assertEquals(1, ac.limit());
+
+    // once the load is gone, it probes back up a game at a time.
+    for (int i = 0; i < 3; i++) {
+      ac.taskFinished(FAST_NANOS);
+    }
+    assertFalse(ac.overloaded());
+    assertEquals(Decision.ADMIT, ac.admit(1, 0));
+    assertEquals(2, ac.limit());
+  }
+
+
+  @Test
+  public void testRejectsPastMaxWaiting() {
+    AdmissionController ac = builder().withGroupRange(1, 1, 1).build();
+    assertEquals(Decision.QUEUE, ac.admit(1, 0));
+    assertEquals(Decision.QUEUE, ac.admit(1, 1));
+    assertEquals(Decision.REJECT, ac.admit(1, 2));
+    assertEquals(Decision.ADMIT, ac.admit(0, 2));
+
+    JsonObject stats = ac.asJson();
+    assertEquals(1, stats.get("admitted").getAsInt());
+    assertEquals(2, stats.get("queued").getAsInt());
+    assertEquals(1, stats.get("rejected").getAsInt());
+    assertEquals("ADMIT", stats.get("lastDecision").getAsString());
+  }
+
+}
@@ -0,0 +1,137 @@
+package edu.brown.cs.networking;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compares PLATFORM and VIRTUAL execution modes by driving simulated games
+ * through group mailboxes. Each game is one Mailbox with a client that sends
+ * its next action as soon as the previous one has been handled. Handling an
+ * action burns a little CPU (the engine) and then blocks once per player (a
+ * synchronous socket send). Reports throughput and p99 latency from submit to
+ * completion.
+ *
+ * Not a unit test. Run after {@code mvn test-compile} with:
+ *
+ * <pre>
+ * java -cp target/classes:target/test-classes \
+ *     edu.brown.cs.networking.ExecutionModeBenchmark [games...]
+ * </pre>
+ *
+ * VIRTUAL needs a JDK 21+ runtime, otherwise it falls back to PLATFORM.
+ */
+public final class ExecutionModeBenchmark {
+
+  private static final int[] DEFAULT_GAMES    = {20, 200, 2000};
+  private static final int   ACTIONS_PER_GAME = 50;
+  private static final int   PLAYERS          = 4;
+  private static final long  ENGINE_NANOS     = 20_000;
+  private static final long  SEND_MICROS      = 250;
+
+
+  private ExecutionModeBenchmark() {}
+
+
+  public static void main(String[] args) throws InterruptedException {
+    int[] games = args.length == 0 ? DEFAULT_GAMES
+        : Arrays.stream(args).mapToInt(Integer::parseInt).toArray();
+    System.out.format("virtual threads available: %s%n",
+        ExecutionMode.virtualThreadsAvailable());
+    System.out.format("%-9s %6s %14s %12s%n", "mode", "games", "actions/s",
+        "p99 (ms)");
+    for (int n : games) {
+      for (ExecutionMode mode : ExecutionMode.values()) {
+        run(mode, n); // warm up
+        Result r = run(mode, n);
+        System.out.format("%-9s %6d %14.0f %12.2f%n", mode, n, r.throughput,
+            r.p99Millis);
+      }
+    }
+  }
+
+
+  private static Result run(ExecutionMode mode, int numGames)
+      throws InterruptedException {
+    ExecutorService scheduler =
+        mode.newTaskExecutor(Runtime.getRuntime().availableProcessors());
+    long[] latencies = new long[numGames * ACTIONS_PER_GAME];
+    AtomicInteger recorded = new AtomicInteger();
+    CountDownLatch done = new CountDownLatch(numGames);
+
+    long start = System.nanoTime();
+    for (int g = 0; g < numGames; g++) {
+      new SimulatedGame(new Mailbox(scheduler), latencies, recorded, done)
+          .sendNext();
+    }
+    done.await();
+    long elapsed = System.nanoTime() - start;
+    scheduler.shutdown();
+    scheduler.awaitTermination(1, TimeUnit.MINUTES);
+
+    Arrays.sort(latencies);
+    Result r = new Result();
+    r.throughput = latencies.length / (elapsed / 1e9);
+    r.p99Millis = latencies[(int) (latencies.length * 0.99)] / 1e6;
+    return r;
+  }
+
+
+  private static final class SimulatedGame {
+
+    private final Mailbox        mailbox;
+    private final long[]         latencies;
+    private final AtomicInteger  recorded;
+    private final CountDownLatch done;
+    private int                  sent;
+
+
+    SimulatedGame(Mailbox mailbox, long[] latencies, AtomicInteger recorded,
+        CountDownLatch done) {
+      this.mailbox = mailbox;
+      this.latencies = latencies;
+      this.recorded = recorded;
+      this.done = done;
+    }
+
+
+    void sendNext() {
+      if (sent == ACTIONS_PER_GAME) {
+        done.countDown();
+        return;
+      }
+      sent++;
+      long submitted = System.nanoTime();
+      mailbox.execute(() -> {
+        handleAction();
+        latencies[recorded.getAndIncrement()] = System.nanoTime() - submitted;
+        sendNext();
+      });
+    }
+
+
+    private static void handleAction() {
+      long until = System.nanoTime() + ENGINE_NANOS;
+      while (System.nanoTime() < until) {
+        // simulated rule checks and state serialization
+      }
+      for (int p = 0; p < PLAYERS; p++) {
+        try {
+          TimeUnit.MICROSECONDS.sleep(SEND_MICROS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+      }
+    }
+  }
+
+
+  private static final class Result {
+    private double throughput;
+    private double p99Millis;
+  }
+
+}
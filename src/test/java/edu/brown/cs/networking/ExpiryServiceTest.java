@@ -0,0 +1,101 @@
+package edu.brown.cs.networking;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class ExpiryServiceTest {
+
+  private static final long WAIT_SECONDS = 5;
+  private static final long LATER        = 60_000;
+  private static final int  RACES        = 2000;
+
+
+  private static User user() {
+    return new User(new FakeSession().session());
+  }
+
+
+  // wait for the timer to get through every deadline that is already due.
+  private static void awaitTimer(ExpiryService service)
+      throws InterruptedException {
+    CountDownLatch done = new CountDownLatch(1);
+    service.schedule(user(), System.currentTimeMillis(), done::countDown);
+    assertTrue(done.await(WAIT_SECONDS, TimeUnit.SECONDS));
+  }
+
+
+  @Test
+  public void testFiresAtDeadline() throws InterruptedException {
+    ExpiryService service = ExpiryService.shared();
+    int before = service.pending();
+    CountDownLatch fired = new CountDownLatch(1);
+    User u = user();
+    service.schedule(u, System.currentTimeMillis() + 10, fired::countDown);
+    assertTrue(fired.await(WAIT_SECONDS, TimeUnit.SECONDS));
+    assertEquals(before, service.pending());
+    assertFalse(service.cancel(u));
+  }
+
+
+  @Test
+  public void testCancelBeforeDeadline() throws InterruptedException {
+    ExpiryService service = ExpiryService.shared();
+    int before = service.pending();
+    AtomicInteger fired = new AtomicInteger();
+    User u = user();
+    service.schedule(u, System.currentTimeMillis() + LATER,
+        fired::incrementAndGet);
+    assertEquals(before + 1, service.pending());
+    assertTrue(service.cancel(u));
+    assertEquals(before, service.pending());
+    assertFalse(service.cancel(u));
+    assertEquals(0, fired.get());
+  }
+
+
+  @Test
+  public void testScheduleReplacesDeadline() throws InterruptedException {
+    ExpiryService service = ExpiryService.shared();
+    int before = service.pending();
+    AtomicInteger first = new AtomicInteger();
+    AtomicInteger second = new AtomicInteger();
+    User u = user();
+    service.schedule(u, System.currentTimeMillis() + LATER,
+        first::incrementAndGet);
+    assertEquals(before + 1, service.pending());
+    service.schedule(u, System.currentTimeMillis(), second::incrementAndGet);
+    awaitTimer(service);
+    assertEquals(0, first.get());
+    assertEquals(1, second.get());
+    assertEquals(before, service.pending());
+  }
+
+
+  @Test
+  public void testCancelRacingTimer() throws InterruptedException {
+    ExpiryService service = ExpiryService.shared();
+    int before = service.pending();
+    AtomicInteger fired = new AtomicInteger();
+    int cancelled = 0;
+    for (int i = 0; i < RACES; i++) {
+      User u = user();
+      // already due, so the timer and the cancel go for it together.
+      service.schedule(u, System.currentTimeMillis(), fired::incrementAndGet);
+      if (service.cancel(u)) {
+        cancelled++;
+      }
+    }
+    awaitTimer(service);
+    // each deadline either fired or was cancelled, never both or neither.
+    assertEquals(RACES, fired.get() + cancelled);
+    assertEquals(before, service.pending());
+  }
+
+}
@@ -0,0 +1,110 @@
+package edu.brown.cs.networking;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.HttpCookie;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.jetty.websocket.api.RemoteEndpoint;
+import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.UpgradeRequest;
+import org.eclipse.jetty.websocket.api.WriteCallback;
+
+/**
+ * A websocket Session with no socket behind it, for tests. Messages sent on it
+ * are recorded, and a send only completes when the test says so, so a test
+ * decides how slow the client is.
+ */
+final class FakeSession implements InvocationHandler {
+
+  private final Session             session;
+  private final RemoteEndpoint      remote;
+  private final UpgradeRequest      request;
+  private final List<String>        sent;
+  private final List<WriteCallback> inFlight;
+  private boolean                   open;
+  private int                       closeCode;
+
+
+  FakeSession(HttpCookie... cookies) {
+    this.session = (Session) Proxy.newProxyInstance(
+        Session.class.getClassLoader(), new Class<?>[] {Session.class}, this);
+    this.remote = (RemoteEndpoint) Proxy.newProxyInstance(
+        RemoteEndpoint.class.getClassLoader(),
+        new Class<?>[] {RemoteEndpoint.class}, this);
+    this.request = new UpgradeRequest("ws://localhost/");
+    this.request.setCookies(new ArrayList<>(Arrays.asList(cookies)));
+    this.sent = new ArrayList<>();
+    this.inFlight = new ArrayList<>();
+    this.open = true;
+  }
+
+
+  Session session() {
+    return session;
+  }
+
+
+  synchronized boolean isOpen() {
+    return open;
+  }
+
+
+  synchronized int closeCode() {
+    return closeCode;
+  }
+
+
+  // every message handed to the socket so far, in order.
+  synchronized List<String> sent() {
+    return new ArrayList<>(sent);
+  }
+
+
+  // finish the oldest send still on the wire.
+  void complete(boolean success) {
+    WriteCallback callback;
+    synchronized (this) {
+      callback = inFlight.remove(0);
+    }
+    if (success) {
+      callback.writeSuccess();
+    } else {
+      callback.writeFailed(new RuntimeException("write failed"));
+    }
+  }
+
+
+  @Override
+  public synchronized Object invoke(Object proxy, Method method,
+      Object[] args) {
+    switch (method.getName()) {
+      case "isOpen":
+        return open;
+      case "close":
+        open = false;
+        closeCode = args != null && args.length == 2 ? (Integer) args[0] : 0;
+        return null;
+      case "getRemote":
+        return remote;
+      case "getUpgradeRequest":
+        return request;
+      case "sendString":
+        sent.add((String) args[0]);
+        inFlight.add((WriteCallback) args[1]);
+        return null;
+      case "hashCode":
+        return System.identityHashCode(proxy);
+      case "equals":
+        return proxy == args[0];
+      case "toString":
+        return "FakeSession";
+      default:
+        return null;
+    }
+  }
+
+}
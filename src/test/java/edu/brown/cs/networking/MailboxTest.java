@@ -0,0 +1,133 @@
+package edu.brown.cs.networking;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+
+import org.junit.Test;
+
+public class MailboxTest {
+
+  // a scheduler that only runs what it's given when told to.
+  private static final class ManualScheduler implements Executor {
+
+    private final Queue<Runnable> runs = new ArrayDeque<>();
+
+
+    @Override
+    public void execute(Runnable r) {
+      runs.add(r);
+    }
+
+
+    int waiting() {
+      return runs.size();
+    }
+
+
+    void runNext() {
+      runs.poll().run();
+    }
+
+
+    void runAll() {
+      while (!runs.isEmpty()) {
+        runNext();
+      }
+    }
+  }
+
+
+  @Test
+  public void testOrderWithinGroup() {
+    ManualScheduler scheduler = new ManualScheduler();
+    Mailbox mailbox = new Mailbox(scheduler);
+    List<Integer> ran = new ArrayList<>();
+    List<Integer> expected = new ArrayList<>();
+    for (int i = 0; i < 3 * Mailbox.BATCH_SIZE; i++) {
+      int n = i;
+      mailbox.execute(() -> ran.add(n));
+      expected.add(n);
+    }
+    scheduler.runAll();
+    assertEquals(expected, ran);
+  }
+
+
+  @Test
+  public void testOneDrainAtATime() {
+    ManualScheduler scheduler = new ManualScheduler();
+    Mailbox mailbox = new Mailbox(scheduler);
+    List<Integer> ran = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      mailbox.execute(() -> ran.add(0));
+    }
+    assertEquals(1, scheduler.waiting());
+    scheduler.runNext();
+    assertEquals(5, ran.size());
+    assertEquals(0, scheduler.waiting());
+  }
+
+
+  @Test
+  public void testHandoffBetweenBatches() {
+    ManualScheduler scheduler = new ManualScheduler();
+    Mailbox mailbox = new Mailbox(scheduler);
+    List<Integer> ran = new ArrayList<>();
+    for (int i = 0; i < Mailbox.BATCH_SIZE + 5; i++) {
+      int n = i;
+      mailbox.execute(() -> ran.add(n));
+    }
+    // one batch, then the thread is handed back with the rest rescheduled.
+    scheduler.runNext();
+    assertEquals(Mailbox.BATCH_SIZE, ran.size());
+    assertEquals(1, scheduler.waiting());
+
+    // a task given between batches still waits its turn.
+    mailbox.execute(() -> ran.add(-1));
+    assertEquals(1, scheduler.waiting());
+    scheduler.runNext();
+    assertEquals(Mailbox.BATCH_SIZE + 6, ran.size());
+    assertEquals(Integer.valueOf(Mailbox.BATCH_SIZE + 4),
+        ran.get(Mailbox.BATCH_SIZE + 4));
+    assertEquals(Integer.valueOf(-1), ran.get(Mailbox.BATCH_SIZE + 5));
+    assertEquals(0, scheduler.waiting());
+  }
+
+
+  @Test
+  public void testTaskQueuedByTaskRunsAfter() {
+    ManualScheduler scheduler = new ManualScheduler();
+    Mailbox mailbox = new Mailbox(scheduler);
+    List<Integer> ran = new ArrayList<>();
+    mailbox.execute(() -> {
+      mailbox.execute(() -> ran.add(2));
+      ran.add(0);
+    });
+    mailbox.execute(() -> ran.add(1));
+    scheduler.runAll();
+    assertEquals(3, ran.size());
+    for (int i = 0; i < ran.size(); i++) {
+      assertEquals(Integer.valueOf(i), ran.get(i));
+    }
+  }
+
+
+  @Test
+  public void testBadTaskDoesNotStopGroup() {
+    ManualScheduler scheduler = new ManualScheduler();
+    Mailbox mailbox = new Mailbox(scheduler);
+    List<Integer> ran = new ArrayList<>();
+    mailbox.execute(() -> {
+      throw new IllegalStateException("expected by the test");
+    });
+    mailbox.execute(() -> ran.add(1));
+    scheduler.runAll();
+    assertEquals(1, ran.size());
+  }
+
+}
@@ -0,0 +1,107 @@
+package edu.brown.cs.networking;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.eclipse.jetty.websocket.api.StatusCode;
+import org.junit.Test;
+
+import com.google.gson.JsonObject;
+
+import edu.brown.cs.networking.Outbox.OverflowPolicy;
+
+public class OutboxTest {
+
+  @Test
+  public void testSendsOneAtATime() {
+    FakeSession client = new FakeSession();
+    Outbox outbox = new Outbox(new User(client.session()), 4,
+        OverflowPolicy.DROP_OLDEST);
+    assertTrue(outbox.offer("a"));
+    assertTrue(outbox.offer("b"));
+    assertEquals(Collections.singletonList("a"), client.sent());
+    assertEquals(2, outbox.depth());
+
+    client.complete(true);
+    assertEquals(Arrays.asList("a", "b"), client.sent());
+    assertEquals(1, outbox.depth());
+    client.complete(true);
+    assertEquals(0, outbox.depth());
+    assertEquals(2, outbox.asJson().get("sent").getAsInt());
+  }
+
+
+  @Test
+  public void testDropOldest() {
+    FakeSession client = new FakeSession();
+    Outbox outbox = new Outbox(new User(client.session()), 3,
+        OverflowPolicy.DROP_OLDEST);
+    for (String m : Arrays.asList("m0", "m1", "m2", "m3")) {
+      assertTrue(outbox.offer(m));
+    }
+    // m0 is already on the wire, so m1 is the oldest that can go.
+    assertEquals(3, outbox.depth());
+    assertTrue(client.isOpen());
+    for (int i = 0; i < 3; i++) {
+      client.complete(true);
+    }
+    assertEquals(Arrays.asList("m0", "m2", "m3"), client.sent());
+
+    JsonObject stats = outbox.asJson();
+    assertEquals(0, stats.get("depth").getAsInt());
+    assertEquals(3, stats.get("maxDepth").getAsInt());
+    assertEquals(3, stats.get("sent").getAsInt());
+    assertEquals(1, stats.get("dropped").getAsInt());
+  }
+
+
+  @Test
+  public void testDisconnect() {
+    FakeSession client = new FakeSession();
+    Outbox outbox = new Outbox(new User(client.session()), 2,
+        OverflowPolicy.DISCONNECT);
+    assertTrue(outbox.offer("m0"));
+    assertTrue(outbox.offer("m1"));
+    assertFalse(outbox.offer("m2"));
+    assertFalse(client.isOpen());
+    assertEquals(StatusCode.POLICY_VIOLATION, client.closeCode());
+    assertEquals(0, outbox.depth());
+    assertEquals(3, outbox.asJson().get("dropped").getAsInt());
+    assertFalse(outbox.offer("m3"));
+  }
+
+
+  @Test
+  public void testClosedSession() {
+    FakeSession client = new FakeSession();
+    Outbox outbox = new Outbox(new User(client.session()), 2,
+        OverflowPolicy.DROP_OLDEST);
+    client.session().close();
+    assertFalse(outbox.offer("m0"));
+    assertEquals(0, outbox.depth());
+    assertTrue(client.sent().isEmpty());
+  }
+
+
+  @Test
+  public void testFailedWriteCounted() {
+    FakeSession client = new FakeSession();
+    Outbox outbox = new Outbox(new User(client.session()), 2,
+        OverflowPolicy.DROP_OLDEST);
+    assertTrue(outbox.offer("a"));
+    assertTrue(outbox.offer("b"));
+    client.complete(false);
+    // a failed write moves on to the next message.
+    assertEquals(Arrays.asList("a", "b"), client.sent());
+    client.complete(true);
+
+    JsonObject stats = outbox.asJson();
+    assertEquals(1, stats.get("sent").getAsInt());
+    assertEquals(1, stats.get("dropped").getAsInt());
+  }
+
+}